@@ -1,36 +1,127 @@
 package valtman.jar.reader.event;
 
+import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import valtman.jar.reader.model.MethodModel;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.model.signature.MethodSignature;
+import valtman.jar.reader.util.AnnotationRenderer;
+import valtman.jar.reader.util.DiffModelUtils;
+import valtman.jar.reader.util.FieldAnnotationVisitor;
+import valtman.jar.reader.util.MethodSignatureVisitor;
+import valtman.jar.reader.util.SignatureUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+/**
+ * Compares the visited class with the signature of its previous version while the events arrive,
+ * so the visited class itself is never materialized. A method is compared once its annotations, and with
+ * {@code methodBodies} its body hash, have been visited, the latter requires the class to be read with its code.
+ */
 public class DiffClassVisitor extends ClassVisitor {
-//    ClassDataModel.ClassDataModelBuilder classDataModelBuilder;
+    private final String name;
+    private final ClassSignature firstClass;
+    private final boolean methodBodies;
+    private final ClassDiffModel.ClassDiffModelBuilder classDiff = ClassDiffModel.builder();
 
+    private final Set<String> visitedMethods = new HashSet<>();
+    private final List<String> addedMethods = new ArrayList<>();
+    private final List<String> deletedMethods = new ArrayList<>();
+    private final List<String> unchangedMethods = new ArrayList<>();
+    private final List<DiffModel<MethodModel, MethodModel>> updatedMethods = new ArrayList<>();
+    private final List<String> annotations = new ArrayList<>();
+    private final Map<String, List<String>> fieldAnnotations = new HashMap<>();
 
-    public DiffClassVisitor(int api) {
-        super(api);
+    public DiffClassVisitor(String name, ClassSignature firstClass) {
+        this(name, firstClass, false);
     }
 
-    public DiffClassVisitor(int api, ClassVisitor cv) {
-        super(api, cv);
+    public DiffClassVisitor(String name, ClassSignature firstClass, boolean methodBodies) {
+        super(Opcodes.ASM7);
+        this.name = name;
+        this.firstClass = firstClass;
+        this.methodBodies = methodBodies;
+    }
+
+    /**
+     * Visits a signature read earlier, including the annotations {@link SignatureUtils#accept} does not replay.
+     */
+    public void visitSignature(ClassSignature secondClass) {
+        annotations.addAll(secondClass.getAnnotations());
+        fieldAnnotations.putAll(secondClass.getFieldAnnotations());
+        SignatureUtils.accept(secondClass, this);
     }
 
     @Override
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
-        System.out.println(access + " " + name + " " + signature + " " + superName + " " + Arrays.toString(interfaces));
-//        super.visit(version, access, name, signature, superName, interfaces);
+        classDiff.name(this.name)
+                .supperClass(DiffModelUtils.getSuperClassDiff(firstClass.getSuperName(), superName))
+                .interfaces(DiffModelUtils.getInterfaceDiff(firstClass.getInterfaces(),
+                        Objects.isNull(interfaces) ? Collections.emptyList() : Arrays.asList(interfaces)));
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        return AnnotationRenderer.of(descriptor, annotations::add);
+    }
+
+    @Override
+    public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+        return new FieldAnnotationVisitor(fieldAnnotation -> fieldAnnotations.put(name, fieldAnnotation));
     }
 
     @Override
     public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
-        System.out.println(access + " " + name + " " + signature + " " + desc + " " + Arrays.toString(exceptions));
-        return super.visitMethod(access, name, desc, signature, exceptions);
+        MethodSignature.MethodSignatureBuilder secondMethod = MethodSignature.builder()
+                .access(access)
+                .name(name)
+                .desc(desc)
+                .exceptions(Objects.isNull(exceptions) ? Collections.emptyList() : Arrays.asList(exceptions));
+        return new MethodSignatureVisitor(secondMethod, methodBodies, this::compareMethod);
+    }
+
+    private void compareMethod(MethodSignature secondMethod) {
+        MethodSignature firstMethod = firstClass.getMethods().get(secondMethod.getKey());
+
+        if (Objects.isNull(firstMethod)) {
+            addedMethods.add(DiffModelUtils.getReadableMethodName(secondMethod));
+        } else {
+            visitedMethods.add(secondMethod.getKey());
+            if (DiffModelUtils.isSameMethod(firstMethod, secondMethod)) {
+                unchangedMethods.add(DiffModelUtils.getReadableMethodName(firstMethod));
+            } else {
+                updatedMethods.add(DiffModelUtils.getUpdatedMethodDiff(firstMethod, secondMethod));
+            }
+        }
     }
 
     @Override
     public void visitEnd() {
-        System.out.println("----------------------------------------------------------------");
+        firstClass.getMethods().forEach((key, firstMethod) -> {
+            if (!visitedMethods.contains(key)) {
+                deletedMethods.add(DiffModelUtils.getReadableMethodName(firstMethod));
+            }
+        });
+        classDiff.annotations(DiffModelUtils.getAnnotationDiff("annotations", firstClass.getAnnotations(), annotations))
+                .fieldAnnotations(DiffModelUtils.getFieldAnnotationDiffs(firstClass.getFieldAnnotations(), fieldAnnotations));
+        classDiff.methods(new DiffModel<>(DiffModelUtils.getReadableName(firstClass.getAccess(), firstClass.getName()),
+                addedMethods, updatedMethods, deletedMethods, unchangedMethods));
+    }
+
+    public ClassDiffModel getClassDiff() {
+        return classDiff.build();
     }
 }
@@ -1,23 +1,90 @@
 package valtman.jar.reader.event;
 
-import valtman.jar.reader.model.ClassModel;
+import org.objectweb.asm.ClassReader;
+import valtman.jar.reader.model.diff.ClassDiffModel;
 import valtman.jar.reader.model.diff.JarDiffModel;
-import valtman.jar.reader.util.ReaderUtils;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.service.AbstractJarReaderService;
+import valtman.jar.reader.service.PipelineConfig;
+import valtman.jar.reader.source.ClassEntry;
+import valtman.jar.reader.source.ReaderBackend;
+import valtman.jar.reader.util.DiffModelUtils;
+import valtman.jar.reader.util.SignatureUtils;
 
-import java.io.File;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.List;
-
-public class JarEventReaderService implements valtman.jar.reader.service.JarReaderService {
-    public List<ClassModel> readJar(File path) {
-        ReaderUtils.load(path).forEach(
-                (name, classReader) -> classReader.accept(new DiffClassVisitor(393216),0)
-        );
-        return Collections.emptyList();
+import java.util.Objects;
+
+public class JarEventReaderService extends AbstractJarReaderService {
+
+    public JarEventReaderService() {
+        this(ReaderBackend.JAR_FILE);
+    }
+
+    public JarEventReaderService(ReaderBackend readerBackend) {
+        super(readerBackend);
+    }
+
+    public JarEventReaderService(ReaderBackend readerBackend, PipelineConfig pipelineConfig) {
+        super(readerBackend, pipelineConfig);
+    }
+
+    @Override
+    protected JarDiffModel compareClass(String name, ClassEntry firstEntry, ClassEntry secondEntry) {
+        if (Objects.isNull(firstEntry)) {
+            return JarDiffModel.jarDiffBuilder()
+                    .added(Collections.singletonList(name))
+                    .build();
+        }
+
+        if (Objects.isNull(secondEntry)) {
+            return JarDiffModel.jarDiffBuilder()
+                    .deleted(Collections.singletonList(name))
+                    .build();
+        }
+
+        byte[] firstClass = firstEntry.getBytes();
+        byte[] secondClass = secondEntry.getBytes();
+        if (Arrays.equals(firstClass, secondClass)) {
+            return JarDiffModel.jarDiffBuilder()
+                    .unchanged(Collections.singletonList(name))
+                    .build();
+        }
+
+        boolean methodBodies = getPipelineConfig().isCompareMethodBodies();
+        ClassSignature firstSignature = SignatureUtils.readSignature(new ClassReader(firstClass), -1, -1, methodBodies);
+        DiffClassVisitor diffClassVisitor = new DiffClassVisitor(name, firstSignature, methodBodies);
+        new ClassReader(secondClass).accept(diffClassVisitor, SignatureUtils.getParsingOptions(methodBodies));
+        return toJarDiff(name, diffClassVisitor.getClassDiff());
     }
 
     @Override
-    public JarDiffModel getDiff(File fromPath, File toPath) {
-        return null;
+    protected JarDiffModel compareClass(String name, ClassSignature firstClass, ClassSignature secondClass) {
+        if (Objects.isNull(firstClass)) {
+            return JarDiffModel.jarDiffBuilder()
+                    .added(Collections.singletonList(name))
+                    .build();
+        }
+
+        if (Objects.isNull(secondClass)) {
+            return JarDiffModel.jarDiffBuilder()
+                    .deleted(Collections.singletonList(name))
+                    .build();
+        }
+
+        DiffClassVisitor diffClassVisitor = new DiffClassVisitor(name, firstClass, getPipelineConfig().isCompareMethodBodies());
+        diffClassVisitor.visitSignature(secondClass);
+        return toJarDiff(name, diffClassVisitor.getClassDiff());
+    }
+
+    private static JarDiffModel toJarDiff(String name, ClassDiffModel classDiff) {
+        if (DiffModelUtils.isChanged(classDiff)) {
+            return JarDiffModel.jarDiffBuilder()
+                    .updated(Collections.singletonList(classDiff))
+                    .build();
+        }
+        return JarDiffModel.jarDiffBuilder()
+                .unchanged(Collections.singletonList(name))
+                .build();
     }
 }
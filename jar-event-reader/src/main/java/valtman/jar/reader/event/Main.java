@@ -1,16 +1,19 @@
 package valtman.jar.reader.event;
 
-import valtman.jar.reader.util.ReaderUtils;
+import valtman.jar.reader.model.diff.JarDiffModel;
 
 import java.io.File;
 
 public class Main {
     public static void main(String... args) {
-        String path = "/Users/nataliya_valtman/IdeaProjects/jarreader/src/test/resources/lombok.jar";
-        ReaderUtils.load(new File(path)).forEach(
-                (name, classReader) -> classReader.accept(new DiffClassVisitor(393216),0)
-        );
-
-
+        if (args.length != 2) {
+            System.out.println("Usage: Main <first jar> <second jar>");
+            return;
+        }
+        JarDiffModel diff = new JarEventReaderService().getDiff(new File(args[0]), new File(args[1]));
+        System.out.println("added: " + diff.getAdded().size()
+                + ", deleted: " + diff.getDeleted().size()
+                + ", updated: " + diff.getUpdated().size()
+                + ", unchanged: " + diff.getUnchanged().size());
     }
 }
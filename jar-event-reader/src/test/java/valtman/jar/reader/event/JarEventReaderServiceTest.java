@@ -0,0 +1,46 @@
+package valtman.jar.reader.event;
+
+import org.junit.jupiter.api.Test;
+import valtman.jar.reader.model.MethodModel;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+
+import java.io.File;
+import java.net.URISyntaxException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JarEventReaderServiceTest {
+
+    private final JarEventReaderService jarService = new JarEventReaderService();
+
+    @Test
+    public void shouldCompareJarFiles() throws URISyntaxException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        JarDiffModel diff = jarService.getDiff(
+                new File(classLoader.getResource("jar/test-1.jar").toURI()),
+                new File(classLoader.getResource("jar/test-2.jar").toURI()));
+        assertThat(diff).isNotNull();
+
+        assertThat(diff.getAdded()).containsExactly("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(diff.getDeleted()).containsExactly("valtman/test/jar/deleted/ClassToDelete.class");
+        assertThat(diff.getUnchanged()).containsExactlyInAnyOrder(
+                "valtman/test/jar/exceptions/SomeException.class", "valtman/test/jar/interfaces/SomeInterface.class",
+                "valtman/test/jar/unchanged/FirstClass.class", "valtman/test/jar/unchanged/SecondClass.class");
+        assertThat(diff.getUpdated()).hasSize(1);
+
+        ClassDiffModel updatedClassDiff = diff.getUpdated().get(0);
+        assertThat(updatedClassDiff.getName()).isEqualTo("valtman/test/jar/updated/ClassToUpdate.class");
+        assertThat(updatedClassDiff.getSupperClass().getAdded()).isEqualTo("valtman.test.jar.unchanged.FirstClass");
+        assertThat(updatedClassDiff.getSupperClass().getDeleted()).isEqualTo("valtman.test.jar.unchanged.SecondClass");
+
+        assertThat(updatedClassDiff.getMethods().getAdded()).containsExactly("methodToAdd(java.lang.String):java.lang.Object");
+        assertThat(updatedClassDiff.getMethods().getDeleted()).containsExactly("private methodToDelete():java.lang.Object");
+        assertThat(updatedClassDiff.getMethods().getUpdated()).hasSize(1);
+
+        DiffModel<MethodModel, MethodModel> updatedMethodDiff = updatedClassDiff.getMethods().getUpdated().get(0);
+        assertThat(updatedMethodDiff.getName()).isEqualTo("methodToUpdate");
+        assertThat(updatedMethodDiff.getDeleted().getExceptions()).containsExactly("java.lang.Exception");
+    }
+}
@@ -1,96 +1,81 @@
 package valtman.jar.reader.object;
 
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.tree.ClassNode;
-import valtman.jar.reader.model.ClassDataModel;
+import valtman.jar.reader.cache.CacheStats;
+import valtman.jar.reader.cache.JarSignatureMemoryCache;
 import valtman.jar.reader.model.ClassModel;
-import valtman.jar.reader.model.MethodModel;
 import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.model.signature.JarSignature;
 import valtman.jar.reader.object.util.DiffUtil;
-import valtman.jar.reader.service.JarReaderService;
-import valtman.jar.reader.util.ReaderUtils;
+import valtman.jar.reader.service.AbstractJarReaderService;
+import valtman.jar.reader.service.DiffJob;
+import valtman.jar.reader.service.PipelineConfig;
+import valtman.jar.reader.source.ClassEntry;
+import valtman.jar.reader.source.ReaderBackend;
 
 import java.io.File;
-import java.util.*;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-public class JarObjectReaderService implements JarReaderService {
+public class JarObjectReaderService extends AbstractJarReaderService {
 
-    private final Executor executor = Executors.newWorkStealingPool();
+    private final JarSignatureMemoryCache signatureCache;
 
-    public List<ClassModel> readJar(String path) {
-        return parseJar(new File(path))
-                .values()
-                .stream()
-                .map(classNode -> ClassModel.builder()
-                        .className(classNode.name)
-                        .classDataModel(ClassDataModel.builder()
-                                .methods(Stream.ofNullable(classNode.methods)
-                                        .flatMap(List::parallelStream)
-                                        .map(methodNode -> MethodModel.builder()
-                                                .methodName(methodNode.name)
-                                                .returnType(methodNode.desc)
-                                                .build())
-                                        .collect(Collectors.toUnmodifiableList())
-                                )
-                                .build())
-                        .build())
-                .collect(Collectors.toList());
+    public JarObjectReaderService() {
+        this(ReaderBackend.JAR_FILE);
+    }
 
+    public JarObjectReaderService(ReaderBackend readerBackend) {
+        this(readerBackend, null);
+    }
 
+    /**
+     * Keeps parsed jars in the given cache, so a comparison where only one jar has changed parses only that jar.
+     */
+    public JarObjectReaderService(ReaderBackend readerBackend, JarSignatureMemoryCache signatureCache) {
+        this(readerBackend, PipelineConfig.defaultConfig(), signatureCache);
     }
 
-    private Map<String, ClassNode> parseJar(File file) {
-        return ReaderUtils.load(file).values()
-                .parallelStream()
-                .map(classReader -> {
-                            ClassNode node = new ClassNode();
-                            classReader.accept(node, 0);
-                            return node;
-                        }
-                )
-                .collect(Collectors.toMap(classNode -> classNode.name, classNode -> classNode));
+    public JarObjectReaderService(ReaderBackend readerBackend, PipelineConfig pipelineConfig, JarSignatureMemoryCache signatureCache) {
+        super(readerBackend, pipelineConfig);
+        this.signatureCache = signatureCache;
+    }
+
+    public List<ClassModel> readJar(String path) {
+        return readJar(new File(path));
     }
 
     @Override
-    public JarDiffModel getDiff(File firstJar, File secondJar) {
-        CompletableFuture<Map<String, ClassReader>> firstJarParser = CompletableFuture.supplyAsync(() -> ReaderUtils.load(firstJar), executor);
-        CompletableFuture<Map<String, ClassReader>> secondJarParser = CompletableFuture.supplyAsync(() -> ReaderUtils.load(secondJar), executor);
-        return CompletableFuture.allOf(firstJarParser, secondJarParser)
-                .thenApplyAsync(v -> {
-                    Map<String, ClassReader> firstClassReaderMap = firstJarParser.join();
-                    Map<String, ClassReader> secondClassReaderMap = secondJarParser.join();
-                    Set<String> classes = new HashSet<>(firstClassReaderMap.keySet());
-                    classes.addAll(secondClassReaderMap.keySet());
+    public DiffJob getDiffAsync(File firstJar, File secondJar) {
+        if (Objects.isNull(signatureCache)) {
+            return super.getDiffAsync(firstJar, secondJar);
+        }
+        DiffJob job = newJob();
+        Executor ioExecutor = getPipelineConfig().getIoExecutor();
+        CompletableFuture<JarSignature> firstSignature = CompletableFuture.supplyAsync(() -> getSignatures(firstJar, job), ioExecutor);
+        CompletableFuture<JarSignature> secondSignature = CompletableFuture.supplyAsync(() -> getSignatures(secondJar, job), ioExecutor);
+        return job.completeWith(firstSignature.thenCombine(secondSignature, (first, second) -> getDiff(first, second, job)));
+    }
 
-                    List<JarDiffModel> classDiffModel = classes.parallelStream()
-                            .map(classPath -> DiffUtil.compareClass(classPath, firstClassReaderMap.get(classPath), secondClassReaderMap.get(classPath)))
-                            .collect(Collectors.toList());
+    public Optional<CacheStats> getCacheStats() {
+        return Optional.ofNullable(signatureCache)
+                .map(JarSignatureMemoryCache::getStats);
+    }
+
+    @Override
+    protected JarDiffModel compareClass(String name, ClassEntry firstEntry, ClassEntry secondEntry) {
+        return DiffUtil.compareClass(name, firstEntry, secondEntry, getPipelineConfig().isCompareMethodBodies());
+    }
 
-                    return classDiffModel
-                            .stream()
-                            .reduce(JarDiffModel.jarDiffBuilder()
-                                            .updated(new LinkedList<>())
-                                            .added(new LinkedList<>())
-                                            .unchanged(new LinkedList<>())
-                                            .deleted(new LinkedList<>())
-                                            .build(),
-                                    (jarDiffModel, jarDiffModel2) -> {
-                                        Optional.ofNullable(jarDiffModel2.getAdded())
-                                                .ifPresent(jarDiffModel.getAdded()::addAll);
-                                        Optional.ofNullable(jarDiffModel2.getDeleted())
-                                                .ifPresent(jarDiffModel.getDeleted()::addAll);
-                                        Optional.ofNullable(jarDiffModel2.getUpdated())
-                                                .ifPresent(jarDiffModel.getUpdated()::addAll);
-                                        Optional.ofNullable(jarDiffModel2.getUnchanged())
-                                                .ifPresent(jarDiffModel.getUnchanged()::addAll);
-                                        return jarDiffModel;
-                                    });
+    @Override
+    protected JarDiffModel compareClass(String name, ClassSignature firstClass, ClassSignature secondClass) {
+        return DiffUtil.compareClass(name, firstClass, secondClass);
+    }
 
-                }, executor).join();
+    private JarSignature getSignatures(File jarFile, DiffJob job) {
+        return signatureCache.get(jarFile, getPipelineConfig().isCompareMethodBodies(), file -> readSignatures(file, job));
     }
 }
@@ -1,18 +1,128 @@
 package valtman.jar.reader.object;
 
+import valtman.jar.reader.model.JarPair;
 import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.diff.JarPairDiffModel;
+import valtman.jar.reader.report.BinaryDiffWriter;
+import valtman.jar.reader.report.DiffWriter;
+import valtman.jar.reader.report.JsonDiffWriter;
+import valtman.jar.reader.service.BatchJarReaderService;
+import valtman.jar.reader.service.PipelineConfig;
+import valtman.jar.reader.source.ReaderBackend;
+import valtman.jar.reader.util.ExecutorUtils;
+import valtman.jar.reader.util.ReaderUtils;
 
 import java.io.File;
-import java.util.concurrent.ExecutionException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 public class Main {
-    public static void main(String... args) throws ExecutionException, InterruptedException {
-        String path = "/Users/nataliya_valtman/IdeaProjects/jarreader/jar-object-reader/src/test/resources/lombok.jar";
-        String path2 = "/Users/nataliya_valtman/IdeaProjects/jarreader/jar-object-reader/src/test/resources/lombok-0.4.jar";
-        JarDiffModel diff = new JarObjectReaderService().getDiff(new File(path), new File(path2));
-        System.out.println(diff);
+    private static final String BATCH_OPTION = "--batch";
+    private static final String TIMELINE_OPTION = "--timeline";
+    private static final String CLASSPATH_OPTION = "--classpath";
+    private static final String REPORT_OPTION = "--report";
+    private static final String METHOD_BODIES_OPTION = "--method-bodies";
+    private static final String JSON_SUFFIX = ".json";
+    private static final int MAX_CONCURRENT_PAIRS = 16;
 
+    public static void main(String... args) throws IOException {
+        if (args.length == 2 && BATCH_OPTION.equals(args[0])) {
+            runBatch(readPairs(args[1]));
+        } else if (args.length > 2 && TIMELINE_OPTION.equals(args[0])) {
+            runTimeline(Arrays.stream(args, 1, args.length)
+                    .map(File::new)
+                    .collect(Collectors.toList()));
+        } else if (args.length == 3 && CLASSPATH_OPTION.equals(args[0])) {
+            JarDiffModel diff = new JarObjectReaderService(ReaderBackend.MEMORY_MAPPED)
+                    .getDiff(ReaderUtils.parseClasspath(args[1]), ReaderUtils.parseClasspath(args[2]));
+            System.out.println(summary(diff));
+        } else if (args.length == 4 && REPORT_OPTION.equals(args[0])) {
+            writeReport(new File(args[1]), new File(args[2]), new File(args[3]));
+        } else if (args.length == 3 && METHOD_BODIES_OPTION.equals(args[0])) {
+            PipelineConfig pipelineConfig = PipelineConfig.builder()
+                    .ioExecutor(ExecutorUtils.newIoExecutor())
+                    .computePool(ForkJoinPool.commonPool())
+                    .inflateConcurrency(PipelineConfig.UNLIMITED)
+                    .compareMethodBodies(true)
+                    .build();
+            JarDiffModel diff = new JarObjectReaderService(ReaderBackend.MEMORY_MAPPED, pipelineConfig, null)
+                    .getDiff(new File(args[1]), new File(args[2]));
+            System.out.println(summary(diff));
+        } else if (args.length == 2) {
+            JarDiffModel diff = new JarObjectReaderService().getDiff(new File(args[0]), new File(args[1]));
+            System.out.println(summary(diff));
+        } else {
+            System.out.println("Usage: Main <first jar or directory> <second jar or directory>");
+            System.out.println("       Main --batch <file with a pair of jars separated by whitespace per line>");
+            System.out.println("       Main --timeline <first jar> <second jar> [<next jar>...]");
+            System.out.println("       Main --classpath <first classpath> <second classpath>");
+            System.out.println("       Main --report <report file, .json or binary> <first jar> <second jar>");
+            System.out.println("       Main --method-bodies <first jar> <second jar>");
+        }
     }
 
+    private static void runBatch(List<JarPair> pairs) {
+        PipelineConfig pipelineConfig = PipelineConfig.builder()
+                .ioExecutor(ExecutorUtils.newIoExecutor())
+                .computePool(new ForkJoinPool(Runtime.getRuntime().availableProcessors()))
+                .inflateConcurrency(PipelineConfig.UNLIMITED)
+                .build();
+        BatchJarReaderService batchService = new BatchJarReaderService(
+                config -> new JarObjectReaderService(ReaderBackend.MEMORY_MAPPED, config, null),
+                pipelineConfig, MAX_CONCURRENT_PAIRS);
 
+        long failed = batchService.getDiffs(pairs)
+                .peek(result -> System.out.println(result.getPair().getFirstJar() + " -> " + result.getPair().getSecondJar()
+                        + ": " + (result.isFailed() ? "failed, " + result.getError().getMessage() : summary(result.getDiff()))))
+                .filter(JarPairDiffModel::isFailed)
+                .count();
+        System.out.println("pairs: " + pairs.size() + ", failed: " + failed);
+    }
+
+    private static void runTimeline(List<File> jars) {
+        List<JarDiffModel> timeline = new JarObjectReaderService(ReaderBackend.MEMORY_MAPPED).getTimeline(jars);
+        for (int i = 0; i < timeline.size(); i++) {
+            System.out.println(jars.get(i) + " -> " + jars.get(i + 1) + ": " + summary(timeline.get(i)));
+        }
+    }
+
+    private static void writeReport(File report, File firstJar, File secondJar) throws IOException {
+        JarObjectReaderService service = new JarObjectReaderService(ReaderBackend.MEMORY_MAPPED);
+        try (OutputStream output = Files.newOutputStream(report.toPath());
+             DiffWriter writer = report.getName().endsWith(JSON_SUFFIX)
+                     ? new JsonDiffWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))
+                     : new BinaryDiffWriter(output)) {
+            writer.write(firstJar + " -> " + secondJar, service.publishDiff(firstJar, secondJar)).join();
+        }
+    }
+
+    private static List<JarPair> readPairs(String path) throws IOException {
+        return Files.readAllLines(Paths.get(path))
+                .stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(line -> line.split("\\s+"))
+                .map(jars -> {
+                    if (jars.length != 2) {
+                        throw new IllegalArgumentException("Expected two jars in line " + String.join(" ", jars));
+                    }
+                    return new JarPair(new File(jars[0]), new File(jars[1]));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static String summary(JarDiffModel diff) {
+        return "added: " + diff.getAdded().size()
+                + ", deleted: " + diff.getDeleted().size()
+                + ", updated: " + diff.getUpdated().size()
+                + ", unchanged: " + diff.getUnchanged().size();
+    }
 }
@@ -2,22 +2,40 @@ package valtman.jar.reader.object.util;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.apache.commons.collections4.CollectionUtils;
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.MethodNode;
 import valtman.jar.reader.model.diff.ClassDiffModel;
 import valtman.jar.reader.model.diff.DiffModel;
 import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.source.ClassEntry;
+import valtman.jar.reader.util.DiffModelUtils;
+import valtman.jar.reader.util.SignatureUtils;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class DiffUtil {
 
+    public static JarDiffModel compareClass(String name, ClassEntry firstEntry, ClassEntry secondEntry) {
+        return compareClass(name, firstEntry, secondEntry, false);
+    }
+
+    public static JarDiffModel compareClass(String name, ClassEntry firstEntry, ClassEntry secondEntry, boolean methodBodies) {
+        return compareClass(name,
+                Optional.ofNullable(firstEntry).map(ClassEntry::getClassReader).orElse(null),
+                Optional.ofNullable(secondEntry).map(ClassEntry::getClassReader).orElse(null),
+                methodBodies);
+    }
+
     public static JarDiffModel compareClass(String name, ClassReader firstClassReader, ClassReader secondClassReader) {
+        return compareClass(name, firstClassReader, secondClassReader, false);
+    }
+
+    /**
+     * Compares two versions of a class, with {@code methodBodies} methods with different bodies are reported as updated.
+     */
+    public static JarDiffModel compareClass(String name, ClassReader firstClassReader, ClassReader secondClassReader,
+                                            boolean methodBodies) {
 
         if (Objects.isNull(firstClassReader)) {
             return JarDiffModel.jarDiffBuilder()
@@ -38,8 +56,31 @@ public class DiffUtil {
                     .build();
         }
 
-        ClassDiffModel classDiff = processUpdatedClass(name, firstClassReader, secondClassReader);
-        if (isChanged(classDiff)) {
+        return compareClass(name, readSignature(firstClassReader, methodBodies), readSignature(secondClassReader, methodBodies));
+    }
+
+    public static JarDiffModel compareClass(String name, ClassSignature firstClass, ClassSignature secondClass) {
+        if (Objects.isNull(firstClass)) {
+            return JarDiffModel.jarDiffBuilder()
+                    .added(Collections.singletonList(name))
+                    .build();
+        }
+
+        if (Objects.isNull(secondClass)) {
+            return JarDiffModel.jarDiffBuilder()
+                    .deleted(Collections.singletonList(name))
+                    .build();
+        }
+
+        //recompiled classes rarely match byte for byte, but usually do once debug attributes are left out
+        if (firstClass.hasSameSemantics(secondClass)) {
+            return JarDiffModel.jarDiffBuilder()
+                    .unchanged(Collections.singletonList(name))
+                    .build();
+        }
+
+        ClassDiffModel classDiff = processUpdatedClass(name, firstClass, secondClass);
+        if (DiffModelUtils.isChanged(classDiff)) {
             return JarDiffModel.jarDiffBuilder()
                     .updated(Collections.singletonList(classDiff))
                     .build();
@@ -50,90 +91,25 @@ public class DiffUtil {
     }
 
     public static String getReadableClassName(String exceptionClass) {
-        return exceptionClass.replace("/", ".");
-    }
-
-    private static boolean isChanged(ClassDiffModel classDiff) {
-        return isCollectionChanged(classDiff.getMethods())
-                || isCollectionChanged(classDiff.getAnnotations())
-                || isCollectionChanged(classDiff.getInterfaces())
-                || isObjectChanged(classDiff.getSupperClass());
+        return DiffModelUtils.getReadableClassName(exceptionClass);
     }
 
-    private static <U> boolean isObjectChanged(DiffModel<String, U> diffModel) {
-        if (Objects.isNull(diffModel)) {
-            return false;
-        }
-        return Objects.nonNull(diffModel.getAdded())
-                || Objects.nonNull(diffModel.getDeleted())
-                || Objects.nonNull(diffModel.getUpdated());
+    private static ClassSignature readSignature(ClassReader classReader, boolean methodBodies) {
+        return SignatureUtils.readSignature(classReader, -1, -1, methodBodies);
     }
 
-    private static <T, U> boolean isCollectionChanged(DiffModel<List<T>, List<U>> diffModel) {
-        if (Objects.isNull(diffModel)) {
-            return false;
-        }
-        return CollectionUtils.isNotEmpty(diffModel.getAdded())
-                || CollectionUtils.isNotEmpty(diffModel.getDeleted())
-                || CollectionUtils.isNotEmpty(diffModel.getUpdated());
-    }
-
-    private static ClassDiffModel processUpdatedClass(String name, ClassReader firstClassReader, ClassReader secondClassReader) {
-        Map<String, MethodNode> firstMethods = getClassMethods(firstClassReader);
-        Map<String, MethodNode> secondMethods = getClassMethods(secondClassReader);
-
-        var methodDiffs = MethodDiffUtil.getMethodDiff(firstClassReader, firstMethods, secondMethods);
-        var interfaceDiffs = getInterfaceDiff(firstClassReader.getInterfaces(), secondClassReader.getInterfaces());
-        DiffModel<String, String> superClassDiff = getSuperClassDiff(firstClassReader.getSuperName(), secondClassReader.getSuperName());
+    private static ClassDiffModel processUpdatedClass(String name, ClassSignature firstClass, ClassSignature secondClass) {
+        var methodDiffs = MethodDiffUtil.getMethodDiff(firstClass, secondClass);
+        var interfaceDiffs = DiffModelUtils.getInterfaceDiff(firstClass.getInterfaces(), secondClass.getInterfaces());
+        DiffModel<String, String> superClassDiff = DiffModelUtils.getSuperClassDiff(firstClass.getSuperName(), secondClass.getSuperName());
 
         return ClassDiffModel.builder()
                 .name(name)
                 .methods(methodDiffs)
                 .interfaces(interfaceDiffs)
                 .supperClass(superClassDiff)
+                .annotations(DiffModelUtils.getAnnotationDiff("annotations", firstClass.getAnnotations(), secondClass.getAnnotations()))
+                .fieldAnnotations(DiffModelUtils.getFieldAnnotationDiffs(firstClass.getFieldAnnotations(), secondClass.getFieldAnnotations()))
                 .build();
     }
-
-    private static DiffModel<String, String> getSuperClassDiff(String firstSupperClass, String secondSupperClass) {
-        if (Objects.equals(firstSupperClass, secondSupperClass)) {
-            return DiffModel.<String, String>builder()
-                    .unchanged(getReadableClassName(firstSupperClass))
-                    .build();
-        }
-        return DiffModel.<String, String>builder()
-                .deleted(getReadableClassName(firstSupperClass))
-                .added(getReadableClassName(secondSupperClass))
-                .build();
-    }
-
-    private static DiffModel<List<String>, List<String>> getInterfaceDiff(String[] first, String[] second) {
-        //TODO the number of interfaces for single class is usually small but still should be checked
-        Set<String> addedInterfaces = new HashSet<>(Arrays.asList(second));
-        List<String> unchangedInterfaces = new ArrayList<>();
-
-        List<String> deletedReadableInterfaces = Arrays.stream(first)
-                .filter(name -> !(addedInterfaces.remove(name) && unchangedInterfaces.add(name)))
-                .map(DiffUtil::getReadableClassName)
-                .collect(Collectors.toUnmodifiableList());
-
-        List<String> unchangedReadableInterfaces = unchangedInterfaces.stream()
-                .map(DiffUtil::getReadableClassName)
-                .collect(Collectors.toList());
-
-        List<String> addedReadableInterfaces = addedInterfaces.stream()
-                .map(DiffUtil::getReadableClassName)
-                .collect(Collectors.toList());
-
-        return new DiffModel<>("interfaces", addedReadableInterfaces, null,
-                deletedReadableInterfaces, unchangedReadableInterfaces);
-    }
-
-    private static Map<String, MethodNode> getClassMethods(ClassReader classReader) {
-        ClassNode classNode = new ClassNode();
-        classReader.accept(classNode, 0);
-        return Stream.ofNullable(classNode.methods)
-                .flatMap(List::stream)
-                .collect(Collectors.toMap(method -> method.name + method.desc, method -> method));
-    }
-
 }
@@ -0,0 +1,160 @@
+package valtman.jar.reader.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import valtman.jar.reader.metrics.DiffMetrics;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.JarSignature;
+import valtman.jar.reader.model.signature.MethodSignature;
+import valtman.jar.reader.object.JarObjectReaderService;
+import valtman.jar.reader.service.PipelineConfig;
+import valtman.jar.reader.source.ReaderBackend;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static valtman.jar.reader.object.test.TestJars.getJar;
+
+public class CachingJarReaderServiceTest {
+
+    private static final long MAX_CACHE_SIZE = 1024 * 1024;
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    public void shouldCompareJarFilesFromCachedIndexes() throws URISyntaxException, IOException {
+        CachingJarReaderService jarService = new CachingJarReaderService(new JarObjectReaderService(),
+                new SignatureIndexCache(cacheDirectory, MAX_CACHE_SIZE));
+
+        checkTestJarDiff(jarService.getDiff(getJar("jar/test-1.jar"), getJar("jar/test-2.jar")));
+        assertThat(listIndexes()).hasSize(2);
+
+        checkTestJarDiff(jarService.getDiff(getJar("jar/test-1.jar"), getJar("jar/test-2.jar")));
+        assertThat(listIndexes()).hasSize(2);
+    }
+
+    @Test
+    public void shouldNotReuseIndexWithoutMethodBodies() throws URISyntaxException {
+        SignatureIndexCache cache = new SignatureIndexCache(cacheDirectory, MAX_CACHE_SIZE);
+        File jar = getJar("jar/test-1.jar");
+        new CachingJarReaderService(new JarObjectReaderService(), cache).readSignatures(jar);
+
+        CachingJarReaderService bodiesService = new CachingJarReaderService(new JarObjectReaderService(ReaderBackend.JAR_FILE,
+                PipelineConfig.defaultConfig().toBuilder().compareMethodBodies(true).build(), null), cache);
+        JarSignature jarSignature = bodiesService.readSignatures(jar);
+
+        assertThat(jarSignature.isMethodBodies()).isTrue();
+        assertThat(jarSignature.getClasses().values())
+                .flatExtracting(classSignature -> classSignature.getMethods().values())
+                .extracting(MethodSignature::getBodyHash)
+                .doesNotContain(MethodSignature.NO_BODY_HASH);
+        assertThat(bodiesService.readSignatures(jar).isMethodBodies()).isTrue();
+        assertThat(cache.get(cache.getKey(jar, false)).orElseThrow().isMethodBodies()).isFalse();
+    }
+
+    @Test
+    public void shouldReportMetricsOfWrappedService() throws URISyntaxException {
+        CachingJarReaderService jarService = new CachingJarReaderService(new JarObjectReaderService(),
+                new SignatureIndexCache(cacheDirectory, MAX_CACHE_SIZE));
+        List<DiffMetrics> reported = new CopyOnWriteArrayList<>();
+        jarService.addMetricsListener(reported::add);
+
+        checkTestJarDiff(jarService.getDiff(getJar("jar/test-1.jar"), getJar("jar/test-2.jar")));
+
+        assertThat(reported).hasSize(1);
+        assertThat(reported.get(0).getCount(DiffMetrics.Counter.CLASSES_COMPARED)).isPositive();
+    }
+
+    @Test
+    public void shouldReadSameSignaturesFromIndex() throws URISyntaxException {
+        SignatureIndexCache cache = new SignatureIndexCache(cacheDirectory, MAX_CACHE_SIZE);
+        File jar = getJar("jar/test-1.jar");
+        JarSignature jarSignature = new JarObjectReaderService().readSignatures(jar);
+
+        String key = cache.getKey(jar, false);
+        cache.put(key, jarSignature);
+
+        JarSignature cachedSignature = cache.get(key).orElseThrow();
+        assertThat(cachedSignature.getClasses()).containsOnlyKeys(jarSignature.getClasses().keySet());
+        jarSignature.getClasses().forEach((name, classSignature) -> {
+            assertThat(cachedSignature.getClasses().get(name))
+                    .isEqualToIgnoringGivenFields(classSignature, "methods");
+            assertThat(cachedSignature.getClasses().get(name).getMethods())
+                    .containsOnlyKeys(classSignature.getMethods().keySet());
+        });
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedIndex() throws URISyntaxException, IOException {
+        File firstJar = getJar("jar/test-1.jar");
+        File secondJar = getJar("jar/test-2.jar");
+        JarObjectReaderService jarService = new JarObjectReaderService();
+
+        SignatureIndexCache cache = new SignatureIndexCache(cacheDirectory, MAX_CACHE_SIZE);
+        String firstKey = cache.getKey(firstJar, false);
+        cache.put(firstKey, jarService.readSignatures(firstJar));
+        Path firstIndex = listIndexes()[0];
+        Files.setLastModifiedTime(firstIndex, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+
+        SignatureIndexCache smallCache = new SignatureIndexCache(cacheDirectory, Files.size(firstIndex) * 3 / 2);
+        String secondKey = smallCache.getKey(secondJar, false);
+        smallCache.put(secondKey, jarService.readSignatures(secondJar));
+
+        assertThat(smallCache.get(firstKey)).isEmpty();
+        assertThat(smallCache.get(secondKey)).isPresent();
+    }
+
+    @Test
+    public void shouldTreatCorruptIndexAsMiss() throws URISyntaxException, IOException {
+        SignatureIndexCache cache = new SignatureIndexCache(cacheDirectory, MAX_CACHE_SIZE);
+        File jar = getJar("jar/test-1.jar");
+        String key = cache.getKey(jar, false);
+        cache.put(key, new JarObjectReaderService().readSignatures(jar));
+        Path index = listIndexes()[0];
+        byte[] content = Files.readAllBytes(index);
+
+        //a string count claiming more strings than the index could hold, it follows the magic, version and parse mode
+        content[9] = (byte) 0x7F;
+        Files.write(index, content);
+        assertThat(cache.get(key)).isEmpty();
+        assertThat(index).doesNotExist();
+
+        //an index cut in the middle of a class
+        cache.put(key, new JarObjectReaderService().readSignatures(jar));
+        content = Files.readAllBytes(index);
+        Files.write(index, Arrays.copyOf(content, content.length / 2));
+        assertThat(cache.get(key)).isEmpty();
+    }
+
+    private Path[] listIndexes() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            return files.filter(path -> path.toString().endsWith(".sig")).toArray(Path[]::new);
+        }
+    }
+
+    private void checkTestJarDiff(JarDiffModel diff) {
+        assertThat(diff.getAdded()).containsExactly("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(diff.getDeleted()).containsExactly("valtman/test/jar/deleted/ClassToDelete.class");
+        assertThat(diff.getUnchanged()).hasSize(4);
+        assertThat(diff.getUpdated()).hasSize(1);
+
+        ClassDiffModel updatedClassDiff = diff.getUpdated().get(0);
+        assertThat(updatedClassDiff.getName()).isEqualTo("valtman/test/jar/updated/ClassToUpdate.class");
+        assertThat(updatedClassDiff.getMethods().getAdded()).containsExactly("methodToAdd(java.lang.String):java.lang.Object");
+        assertThat(updatedClassDiff.getMethods().getDeleted()).containsExactly("private methodToDelete():java.lang.Object");
+        assertThat(updatedClassDiff.getMethods().getUpdated()).hasSize(1);
+    }
+}
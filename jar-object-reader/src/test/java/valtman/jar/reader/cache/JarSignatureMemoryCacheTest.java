@@ -0,0 +1,83 @@
+package valtman.jar.reader.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.JarSignature;
+import valtman.jar.reader.object.JarObjectReaderService;
+import valtman.jar.reader.source.ReaderBackend;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static valtman.jar.reader.object.test.TestJars.getJar;
+
+public class JarSignatureMemoryCacheTest {
+
+    @TempDir
+    Path jarDirectory;
+
+    @Test
+    public void shouldParseOnlyChangedJar() throws URISyntaxException {
+        JarSignatureMemoryCache cache = new JarSignatureMemoryCache(1000);
+        JarObjectReaderService jarService = new JarObjectReaderService(ReaderBackend.JAR_FILE, cache);
+        File firstJar = getJar("jar/test-1.jar");
+        File secondJar = getJar("jar/test-2.jar");
+
+        JarDiffModel diff = jarService.getDiff(firstJar, secondJar);
+        assertThat(diff.getUpdated()).hasSize(1);
+        assertThat(cache.getStats().getMissCount()).isEqualTo(2);
+        assertThat(cache.getStats().getHitCount()).isEqualTo(0);
+
+        JarDiffModel sameDiff = jarService.getDiff(secondJar, firstJar);
+        assertThat(sameDiff.getUpdated()).hasSize(1);
+        assertThat(sameDiff.getAdded()).isEqualTo(diff.getDeleted());
+        assertThat(cache.getStats().getMissCount()).isEqualTo(2);
+        assertThat(cache.getStats().getHitCount()).isEqualTo(2);
+        assertThat(jarService.getCacheStats()).isPresent();
+    }
+
+    @Test
+    public void shouldReloadModifiedJar() throws URISyntaxException, IOException {
+        JarSignatureMemoryCache cache = new JarSignatureMemoryCache(1000);
+        JarObjectReaderService jarService = new JarObjectReaderService();
+        Path jar = Files.copy(getJar("jar/test-1.jar").toPath(), jarDirectory.resolve("test.jar"));
+        Files.setLastModifiedTime(jar, FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+
+        JarSignature firstSignature = cache.get(jar.toFile(), false, jarService::readSignatures);
+        assertThat(cache.get(jar.toFile(), false, jarService::readSignatures)).isSameAs(firstSignature);
+
+        Files.copy(getJar("jar/test-2.jar").toPath(), jar, StandardCopyOption.REPLACE_EXISTING);
+        JarSignature secondSignature = cache.get(jar.toFile(), false, jarService::readSignatures);
+        assertThat(secondSignature).isNotSameAs(firstSignature);
+        assertThat(secondSignature.getClasses()).containsKey("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(cache.getStats().getMissCount()).isEqualTo(2);
+        assertThat(cache.getStats().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedJar() throws URISyntaxException {
+        JarObjectReaderService jarService = new JarObjectReaderService();
+        File firstJar = getJar("jar/test-1.jar");
+        File secondJar = getJar("jar/test-2.jar");
+        int classCount = jarService.readSignatures(firstJar).getClasses().size();
+        JarSignatureMemoryCache cache = new JarSignatureMemoryCache(classCount + 1);
+
+        cache.get(firstJar, false, jarService::readSignatures);
+        cache.get(secondJar, false, jarService::readSignatures);
+
+        assertThat(cache.getSize()).isEqualTo(1);
+        assertThat(cache.getWeight()).isLessThanOrEqualTo(classCount + 1);
+        assertThat(cache.getStats().getEvictionCount()).isEqualTo(1);
+        cache.get(secondJar, false, jarService::readSignatures);
+        assertThat(cache.getStats().getHitCount()).isEqualTo(1);
+    }
+}
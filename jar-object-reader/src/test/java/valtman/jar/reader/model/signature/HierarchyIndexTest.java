@@ -0,0 +1,61 @@
+package valtman.jar.reader.model.signature;
+
+import org.junit.jupiter.api.Test;
+import valtman.jar.reader.model.ClassModel;
+import valtman.jar.reader.object.JarObjectReaderService;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HierarchyIndexTest {
+    private static final String OBJECT = "java/lang/Object";
+
+    @Test
+    public void shouldAnswerTransitiveHierarchyQueries() {
+        HierarchyIndex hierarchy = HierarchyIndex.of(JarSignature.builder()
+                .name("test")
+                .classes(Map.of(
+                        "Base.class", classSignature("Base", OBJECT),
+                        "Child.class", classSignature("Child", "Base", "Marker"),
+                        "GrandChild.class", classSignature("GrandChild", "Child", "Marker"),
+                        "Other.class", classSignature("Other", OBJECT, "Marker"),
+                        "Marker.class", classSignature("Marker", OBJECT)))
+                .build());
+
+        assertThat(hierarchy.getClassCount()).isEqualTo(5);
+        assertThat(hierarchy.getTypeCount()).isEqualTo(6);
+        assertThat(hierarchy.getAllSubtypes("Base")).containsExactly("Child", "GrandChild");
+        assertThat(hierarchy.getAllSubtypes("Marker")).containsExactlyInAnyOrder("Child", "GrandChild", "Other");
+        assertThat(hierarchy.getAllSupertypes("GrandChild")).containsExactlyInAnyOrder("Child", "Marker", "Base", OBJECT);
+        assertThat(hierarchy.getAllSupertypes(OBJECT)).isEmpty();
+        assertThat(hierarchy.getAllSubtypes("Missing")).isEmpty();
+        assertThat(hierarchy.getAllSubtypes(hierarchy.getId("Base"), hierarchy.getId("Marker")))
+                .hasSize(3);
+    }
+
+    @Test
+    public void shouldPopulateHierarchyOfReadClasses() throws URISyntaxException {
+        List<ClassModel> classes = new JarObjectReaderService()
+                .readJar(new File(getClass().getClassLoader().getResource("lombok-0.8.jar").toURI()));
+
+        assertThat(classes).isNotEmpty();
+        assertThat(classes).allSatisfy(classModel ->
+                assertThat(classModel.getClassDataModel().getHierarchy()).isNotNull());
+        assertThat(classes)
+                .filteredOn(classModel -> !classModel.getClassDataModel().getHierarchy().isEmpty())
+                .isNotEmpty();
+    }
+
+    private static ClassSignature classSignature(String name, String superName, String... interfaces) {
+        return ClassSignature.builder()
+                .name(name)
+                .superName(superName)
+                .interfaces(List.of(interfaces))
+                .methods(Map.of())
+                .build();
+    }
+}
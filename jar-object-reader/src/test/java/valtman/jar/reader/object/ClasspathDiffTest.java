@@ -0,0 +1,91 @@
+package valtman.jar.reader.object;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.source.ClassSource;
+import valtman.jar.reader.source.ReaderBackend;
+import valtman.jar.reader.util.ReaderUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static valtman.jar.reader.object.test.TestJars.getJar;
+
+public class ClasspathDiffTest {
+
+    private final JarObjectReaderService jarService = new JarObjectReaderService();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldCompareJarWithDirectory() throws URISyntaxException, IOException {
+        Path classes = extract(getJar("jar/test-2.jar"), directory.resolve("classes"));
+
+        JarDiffModel diff = jarService.getDiff(getJar("jar/test-1.jar"), classes.toFile());
+
+        assertThat(diff.getAdded()).containsExactly("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(diff.getDeleted()).containsExactly("valtman/test/jar/deleted/ClassToDelete.class");
+        assertThat(diff.getUnchanged()).hasSize(4);
+        assertThat(diff.getUpdated()).hasSize(1);
+        assertThat(diff.getUpdated().get(0).getName()).isEqualTo("valtman/test/jar/updated/ClassToUpdate.class");
+    }
+
+    @Test
+    public void shouldShadowClassesOfLaterClasspathEntries() throws URISyntaxException {
+        File firstJar = getJar("jar/test-1.jar");
+        File secondJar = getJar("jar/test-2.jar");
+
+        JarDiffModel diff = jarService.getDiff(Collections.singletonList(firstJar), List.of(secondJar, firstJar));
+
+        assertThat(diff.getAdded()).containsExactly("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(diff.getDeleted()).isEmpty();
+        assertThat(diff.getUpdated()).hasSize(1);
+        assertThat(diff.getUnchanged()).hasSize(5);
+    }
+
+    @Test
+    public void shouldWalkDirectoryOnComputePool() throws URISyntaxException, IOException {
+        Path classes = extract(getJar("jar/test-2.jar"), directory.resolve("classes"));
+        AtomicInteger walkThreads = new AtomicInteger();
+        ForkJoinPool walkPool = new ForkJoinPool(2, pool -> {
+            walkThreads.incrementAndGet();
+            return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        }, null, false);
+
+        try (ClassSource source = ReaderUtils.open(classes.toFile(), ReaderBackend.JAR_FILE, walkPool)) {
+            assertThat(source.entries()).hasSize(6);
+        }
+        assertThat(walkThreads).hasPositiveValue();
+        walkPool.shutdown();
+    }
+
+    private Path extract(File jar, Path target) throws IOException {
+        try (JarFile jarFile = new JarFile(jar)) {
+            for (JarEntry entry : Collections.list(jarFile.entries())) {
+                Path path = target.resolve(entry.getName());
+                if (entry.isDirectory()) {
+                    Files.createDirectories(path);
+                    continue;
+                }
+                Files.createDirectories(path.getParent());
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    Files.copy(inputStream, path);
+                }
+            }
+        }
+        return target;
+    }
+}
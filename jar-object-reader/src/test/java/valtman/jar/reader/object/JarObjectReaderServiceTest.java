@@ -2,14 +2,35 @@ package valtman.jar.reader.object;
 
 import org.junit.jupiter.api.Test;
 import valtman.jar.reader.exception.UnableToReadJarException;
+import valtman.jar.reader.metrics.DiffMetrics;
 import valtman.jar.reader.model.MethodModel;
+import valtman.jar.reader.model.diff.ClassDiffEvent;
 import valtman.jar.reader.model.diff.ClassDiffModel;
 import valtman.jar.reader.model.diff.DiffModel;
 import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.model.signature.ColumnarJarSignature;
+import valtman.jar.reader.model.signature.JarSignature;
+import valtman.jar.reader.object.test.CollectingSubscriber;
+import valtman.jar.reader.service.DiffJob;
+import valtman.jar.reader.service.PipelineConfig;
+import valtman.jar.reader.source.ClassEntry;
+import valtman.jar.reader.source.ReaderBackend;
+import valtman.jar.reader.util.SymbolTable;
 
 import java.io.File;
 import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -20,10 +41,252 @@ public class JarObjectReaderServiceTest {
 
     @Test
     public void shouldCompareJarFiles() throws URISyntaxException {
+        checkTestJarDiff(jarService);
+    }
+
+    @Test
+    public void shouldCompareJarFilesWithMemoryMappedBackend() throws URISyntaxException {
+        checkTestJarDiff(new JarObjectReaderService(ReaderBackend.MEMORY_MAPPED));
+    }
+
+    @Test
+    public void shouldCompareJarFilesWithCallerSuppliedPipeline() throws URISyntaxException {
+        ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+        ForkJoinPool computePool = new ForkJoinPool(2);
+        try {
+            checkTestJarDiff(new JarObjectReaderService(ReaderBackend.MEMORY_MAPPED, PipelineConfig.builder()
+                    .ioExecutor(ioExecutor)
+                    .computePool(computePool)
+                    .inflateConcurrency(1)
+                    .build(), null));
+        } finally {
+            ioExecutor.shutdown();
+            computePool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldCompareTimelineOfJarFiles() throws URISyntaxException {
         ClassLoader classLoader = getClass().getClassLoader();
-        JarDiffModel diff = jarService.getDiff(
-                new File(classLoader.getResource("jar/test-1.jar").toURI()),
+        File firstJar = new File(classLoader.getResource("jar/test-1.jar").toURI());
+        File secondJar = new File(classLoader.getResource("jar/test-2.jar").toURI());
+
+        List<JarDiffModel> timeline = jarService.getTimeline(List.of(firstJar, secondJar, firstJar));
+
+        assertThat(timeline).hasSize(2);
+        assertThat(timeline.get(0).getAdded()).containsExactly("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(timeline.get(1).getDeleted()).containsExactly("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(timeline.get(1).getAdded()).containsExactly("valtman/test/jar/deleted/ClassToDelete.class");
+        assertThat(timeline.get(1).getUpdated()).hasSize(1);
+        assertThat(timeline.get(1).getUnchanged()).hasSize(4);
+    }
+
+    @Test
+    public void shouldShareUnchangedClassSignaturesWithPreviousVersion() throws URISyntaxException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File firstJar = new File(classLoader.getResource("jar/test-1.jar").toURI());
+        File secondJar = new File(classLoader.getResource("jar/test-2.jar").toURI());
+
+        JarSignature firstSignature = jarService.readSignatures(firstJar);
+        JarSignature secondSignature = jarService.readSignatures(secondJar, firstSignature);
+
+        String unchangedClass = "valtman/test/jar/interfaces/SomeInterface.class";
+        String updatedClass = "valtman/test/jar/updated/ClassToUpdate.class";
+        assertThat(secondSignature.getClasses().get(unchangedClass)).isSameAs(firstSignature.getClasses().get(unchangedClass));
+        assertThat(secondSignature.getClasses().get(updatedClass)).isNotSameAs(firstSignature.getClasses().get(updatedClass));
+    }
+
+    @Test
+    public void shouldCompareColumnarSignatures() throws URISyntaxException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        SymbolTable symbolTable = new SymbolTable();
+        ColumnarJarSignature firstJar = jarService.readColumnarSignatures(new File(classLoader.getResource("jar/test-1.jar").toURI()), symbolTable);
+        ColumnarJarSignature secondJar = jarService.readColumnarSignatures(new File(classLoader.getResource("jar/test-2.jar").toURI()), symbolTable);
+
+        checkTestJarDiff(jarService.getDiff(firstJar, secondJar));
+
+        int updatedClass = secondJar.findClass("valtman/test/jar/updated/ClassToUpdate.class");
+        assertThat(updatedClass).isNotNegative();
+        assertThat(secondJar.getClassSignature(updatedClass).getSuperName()).isEqualTo("valtman/test/jar/unchanged/FirstClass");
+        assertThat(secondJar.findClass("valtman/test/jar/deleted/ClassToDelete.class")).isNegative();
+        int symbolCount = symbolTable.size();
+        assertThat(secondJar.findClass("valtman/test/jar/missing/MissingClass.class")).isNegative();
+        assertThat(symbolTable.size()).isEqualTo(symbolCount);
+    }
+
+    @Test
+    public void shouldBuildColumnarSignaturesFromClassesAddedInAnyOrder() throws URISyntaxException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        SymbolTable symbolTable = new SymbolTable();
+        ColumnarJarSignature firstJar = jarService.readColumnarSignatures(new File(classLoader.getResource("jar/test-1.jar").toURI()), symbolTable);
+        JarSignature secondSignature = jarService.readSignatures(new File(classLoader.getResource("jar/test-2.jar").toURI()));
+
+        ColumnarJarSignature.Builder builder = ColumnarJarSignature.builder(secondSignature.getName(), symbolTable);
+        secondSignature.getClasses()
+                .entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, ClassSignature>comparingByKey().reversed())
+                .forEach(entry -> builder.add(entry.getKey(), entry.getValue()));
+        String updatedClass = "valtman/test/jar/updated/ClassToUpdate.class";
+        builder.add(updatedClass, secondSignature.getClasses().get(updatedClass));
+        ColumnarJarSignature secondJar = builder.build();
+
+        assertThat(secondJar.getClassCount()).isEqualTo(secondSignature.getClasses().size());
+        secondSignature.getClasses().forEach((entryName, classSignature) -> {
+            ClassSignature columnarClass = secondJar.getClassSignature(secondJar.findClass(entryName));
+            assertThat(columnarClass.getName()).isEqualTo(classSignature.getName());
+            assertThat(columnarClass.getSuperName()).isEqualTo(classSignature.getSuperName());
+            assertThat(columnarClass.getInterfaces()).containsExactlyInAnyOrderElementsOf(classSignature.getInterfaces());
+            assertThat(columnarClass.getMethods()).containsOnlyKeys(classSignature.getMethods().keySet());
+            assertThat(columnarClass.getSemanticHash()).isEqualTo(classSignature.getSemanticHash());
+        });
+        checkTestJarDiff(jarService.getDiff(firstJar, secondJar));
+    }
+
+    @Test
+    public void shouldCompareJarFilesAsynchronously() throws URISyntaxException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        DiffJob job = jarService.getDiffAsync(new File(classLoader.getResource("jar/test-1.jar").toURI()),
                 new File(classLoader.getResource("jar/test-2.jar").toURI()));
+
+        checkTestJarDiff(job.join());
+        assertThat(job.getTotalClasses()).isEqualTo(7);
+        assertThat(job.getProcessedClasses()).isEqualTo(7);
+    }
+
+    @Test
+    public void shouldCancelAsynchronousDiff() throws URISyntaxException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+        CountDownLatch opening = new CountDownLatch(1);
+        ioExecutor.execute(() -> {
+            try {
+                opening.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            JarObjectReaderService service = new JarObjectReaderService(ReaderBackend.JAR_FILE, PipelineConfig.builder()
+                    .ioExecutor(ioExecutor)
+                    .computePool(ForkJoinPool.commonPool())
+                    .build(), null);
+            DiffJob job = service.getDiffAsync(new File(classLoader.getResource("jar/test-1.jar").toURI()),
+                    new File(classLoader.getResource("jar/test-2.jar").toURI()));
+
+            assertThat(job.cancel(true)).isTrue();
+            opening.countDown();
+
+            assertThrows(CancellationException.class, job::join);
+            assertThat(job.getProcessedClasses()).isZero();
+        } finally {
+            ioExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldReportDiffMetrics() throws URISyntaxException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        JarObjectReaderService service = new JarObjectReaderService();
+        List<DiffMetrics> reported = new CopyOnWriteArrayList<>();
+        service.addMetricsListener(reported::add);
+
+        DiffJob job = service.getDiffAsync(new File(classLoader.getResource("jar/test-1.jar").toURI()),
+                new File(classLoader.getResource("jar/test-2.jar").toURI()));
+        checkTestJarDiff(job.join());
+
+        assertThat(reported).containsExactly(job.getMetrics());
+        DiffMetrics metrics = job.getMetrics();
+        assertThat(metrics.getCount(DiffMetrics.Counter.CLASSES_UNCHANGED) + metrics.getCount(DiffMetrics.Counter.CLASSES_COMPARED))
+                .isEqualTo(5);
+        assertThat(metrics.getCount(DiffMetrics.Counter.METHODS_COMPARED)).isPositive();
+        assertThat(metrics.getCount(DiffMetrics.Counter.BYTES_INFLATED)).isPositive();
+        assertThat(metrics.getNanos(DiffMetrics.Stage.LOAD)).isPositive();
+        assertThat(metrics.getNanos(DiffMetrics.Stage.COMPARE)).isPositive();
+    }
+
+    @Test
+    public void shouldPublishClassDiffEvents() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File firstJar = new File(classLoader.getResource("jar/test-1.jar").toURI());
+        File secondJar = new File(classLoader.getResource("jar/test-2.jar").toURI());
+        CollectingSubscriber<ClassDiffEvent> subscriber = new CollectingSubscriber<>();
+
+        jarService.publishDiff(firstJar, secondJar).subscribe(subscriber);
+        List<ClassDiffEvent> events = subscriber.getItems(10);
+
+        assertThat(events).hasSize(7);
+        assertThat(events).filteredOn(event -> event.getType() == ClassDiffEvent.Type.ADDED)
+                .extracting(ClassDiffEvent::getName)
+                .containsExactly("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(events).filteredOn(event -> event.getType() == ClassDiffEvent.Type.DELETED)
+                .extracting(ClassDiffEvent::getName)
+                .containsExactly("valtman/test/jar/deleted/ClassToDelete.class");
+        assertThat(events).filteredOn(event -> event.getType() == ClassDiffEvent.Type.UNCHANGED).hasSize(4);
+        assertThat(events).filteredOn(event -> event.getType() == ClassDiffEvent.Type.UPDATED)
+                .extracting(event -> event.getClassDiff().getName())
+                .containsExactly("valtman/test/jar/updated/ClassToUpdate.class");
+    }
+
+    @Test
+    public void shouldPublishToSlowSubscriberOnSingleThreadPool() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File firstJar = new File(classLoader.getResource("lombok-1.14.4.jar").toURI());
+        File secondJar = new File(classLoader.getResource("lombok-1.16.6.jar").toURI());
+        JarObjectReaderService service = new JarObjectReaderService(ReaderBackend.JAR_FILE, PipelineConfig.withParallelism(1), null);
+        List<DiffMetrics> reported = new CopyOnWriteArrayList<>();
+        service.addMetricsListener(reported::add);
+        CollectingSubscriber<ClassDiffEvent> subscriber = new CollectingSubscriber<>();
+
+        service.publishDiff(firstJar, secondJar).subscribe(subscriber);
+        List<ClassDiffEvent> events = subscriber.getItems(30);
+
+        assertThat(events).hasSizeGreaterThan(Flow.defaultBufferSize());
+        assertThat(reported).hasSize(1);
+        assertThat(reported.get(0).getCount(DiffMetrics.Counter.CLASSES_COMPARED)).isPositive();
+        assertThat(reported.get(0).getCount(DiffMetrics.Counter.BYTES_INFLATED)).isPositive();
+    }
+
+    @Test
+    public void shouldClosePublisherWhenComparisonFailsWithError() throws Exception {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File firstJar = new File(classLoader.getResource("jar/test-1.jar").toURI());
+        File secondJar = new File(classLoader.getResource("jar/test-2.jar").toURI());
+        JarObjectReaderService service = new JarObjectReaderService() {
+            @Override
+            protected JarDiffModel compareClass(String name, ClassEntry firstEntry, ClassEntry secondEntry) {
+                throw new StackOverflowError("Test error");
+            }
+        };
+        CollectingSubscriber<ClassDiffEvent> subscriber = new CollectingSubscriber<>();
+
+        service.publishDiff(firstJar, secondJar).subscribe(subscriber);
+
+        ExecutionException executionException = assertThrows(ExecutionException.class, () -> subscriber.getItems(10));
+        assertThat(executionException.getCause()).isInstanceOf(StackOverflowError.class);
+    }
+
+    @Test
+    public void shouldThrowExceptionForUnreadableJarWithMemoryMappedBackend() {
+        ClassLoader classLoader = getClass().getClassLoader();
+        JarObjectReaderService mappedJarService = new JarObjectReaderService(ReaderBackend.MEMORY_MAPPED);
+
+        CompletionException executionException = assertThrows(CompletionException.class, () -> mappedJarService.getDiff(
+                new File(classLoader.getResource("jar/test-1.jar").toURI()),
+                new File(classLoader.getResource("jar/invalid.jar").toURI())));
+
+        assertThat(executionException.getCause()).isInstanceOf(UnableToReadJarException.class);
+        assertThat(executionException.getCause().getMessage()).isEqualTo("Can't read jar file invalid.jar");
+    }
+
+    private void checkTestJarDiff(JarObjectReaderService service) throws URISyntaxException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        checkTestJarDiff(service.getDiff(
+                new File(classLoader.getResource("jar/test-1.jar").toURI()),
+                new File(classLoader.getResource("jar/test-2.jar").toURI())));
+    }
+
+    private void checkTestJarDiff(JarDiffModel diff) {
         assertThat(diff).isNotNull();
 
         assertThat(diff.getAdded()).hasSize(1);
@@ -56,7 +319,6 @@ public class JarObjectReaderServiceTest {
         assertThat(updatedMethodDiff.getName()).isEqualTo("methodToUpdate");
         assertThat(updatedMethodDiff.getDeleted().getExceptions()).hasSize(1);
         assertThat(updatedMethodDiff.getDeleted().getExceptions()).contains("java.lang.Exception");
-
     }
 
     @Test
@@ -0,0 +1,62 @@
+package valtman.jar.reader.object;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.source.ReaderBackend;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static valtman.jar.reader.object.test.TestJars.readJar;
+import static valtman.jar.reader.object.test.TestJars.writeFatJar;
+
+public class NestedJarDiffTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void shouldCompareNestedJars() throws IOException, URISyntaxException {
+        checkNestedJarDiff(ReaderBackend.JAR_FILE);
+    }
+
+    @Test
+    public void shouldCompareNestedJarsWithMemoryMappedBackend() throws IOException, URISyntaxException {
+        checkNestedJarDiff(ReaderBackend.MEMORY_MAPPED);
+    }
+
+    private void checkNestedJarDiff(ReaderBackend readerBackend) throws IOException, URISyntaxException {
+        byte[] firstJar = readJar("jar/test-1.jar");
+        byte[] secondJar = readJar("jar/test-2.jar");
+
+        Path firstFatJar = writeFatJar(directory.resolve("first.jar"), Map.of(
+                "BOOT-INF/lib/library.jar", firstJar,
+                "BOOT-INF/lib/unchanged.jar", firstJar,
+                "BOOT-INF/lib/deleted.jar", firstJar));
+        Path secondFatJar = writeFatJar(directory.resolve("second.jar"), Map.of(
+                "BOOT-INF/lib/library.jar", secondJar,
+                "BOOT-INF/lib/unchanged.jar", firstJar,
+                "BOOT-INF/lib/added.jar", secondJar));
+
+        JarDiffModel diff = new JarObjectReaderService(readerBackend).getDiff(firstFatJar.toFile(), secondFatJar.toFile());
+
+        DiffModel<List<String>, List<JarDiffModel>> nestedJars = diff.getNestedJars();
+        assertThat(nestedJars.getAdded()).containsExactly("BOOT-INF/lib/added.jar");
+        assertThat(nestedJars.getDeleted()).containsExactly("BOOT-INF/lib/deleted.jar");
+        assertThat(nestedJars.getUnchanged()).containsExactly("BOOT-INF/lib/unchanged.jar");
+        assertThat(nestedJars.getUpdated()).hasSize(1);
+
+        JarDiffModel libraryDiff = nestedJars.getUpdated().get(0);
+        assertThat(libraryDiff.getName()).isEqualTo("BOOT-INF/lib/library.jar");
+        assertThat(libraryDiff.getAdded()).containsExactly("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(libraryDiff.getDeleted()).containsExactly("valtman/test/jar/deleted/ClassToDelete.class");
+        assertThat(libraryDiff.getUpdated()).hasSize(1);
+        assertThat(libraryDiff.getNestedJars()).isNull();
+    }
+}
@@ -0,0 +1,47 @@
+package valtman.jar.reader.object.test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Subscriber which requests the items one by one and collects them.
+ */
+public class CollectingSubscriber<T> implements Flow.Subscriber<T> {
+    private final List<T> items = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<List<T>> completion = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    /**
+     * Waits for the publisher to complete and returns the collected items, or throws the error of the publisher.
+     */
+    public List<T> getItems(long timeoutSeconds) throws InterruptedException, ExecutionException, TimeoutException {
+        return completion.get(timeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(T item) {
+        items.add(item);
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completion.complete(items);
+    }
+}
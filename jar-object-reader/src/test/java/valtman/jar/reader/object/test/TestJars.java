@@ -0,0 +1,55 @@
+package valtman.jar.reader.object.test;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Test jars from the test resources and fat jars built from them.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class TestJars {
+
+    public static File getJar(String name) throws URISyntaxException {
+        return new File(TestJars.class.getClassLoader().getResource(name).toURI());
+    }
+
+    public static byte[] readJar(String name) throws IOException, URISyntaxException {
+        return Files.readAllBytes(getJar(name).toPath());
+    }
+
+    /**
+     * Writes a fat jar holding the given jars keyed by entry name.
+     */
+    public static Path writeFatJar(Path fatJar, Map<String, byte[]> nestedJars) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(fatJar);
+             JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+            for (Map.Entry<String, byte[]> nestedJar : nestedJars.entrySet()) {
+                //Spring Boot stores nested jars uncompressed
+                byte[] content = nestedJar.getValue();
+                JarEntry entry = new JarEntry(nestedJar.getKey());
+                CRC32 crc = new CRC32();
+                crc.update(content);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(content.length);
+                entry.setCompressedSize(content.length);
+                entry.setCrc(crc.getValue());
+                jarOutputStream.putNextEntry(entry);
+                jarOutputStream.write(content);
+                jarOutputStream.closeEntry();
+            }
+        }
+        return fatJar;
+    }
+}
@@ -0,0 +1,15 @@
+package valtman.jar.reader.object.test.data;
+
+@Deprecated
+public class ClassWithAnnotations {
+    @Deprecated
+    private String annotatedField;
+    private int plainField;
+
+    @Deprecated
+    public void annotatedMethod() {
+    }
+
+    public void plainMethod() {
+    }
+}
@@ -0,0 +1,58 @@
+package valtman.jar.reader.object.util;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.util.SignatureUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AnnotationDiffUtilTest {
+    private static final String DEPRECATED = "@java.lang.Deprecated";
+
+    @Test
+    public void shouldShowChangedAnnotations() throws IOException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        ClassReader classReader = new ClassReader(classLoader.getResourceAsStream("classes/annotation/ClassWithAnnotations.class"));
+        ClassReader updatedClassReader = new ClassReader(classLoader.getResourceAsStream("classes/annotation/updated/ClassWithAnnotations.class"));
+
+        JarDiffModel jarDiffModel = DiffUtil.compareClass("test", classReader, updatedClassReader);
+        assertThat(jarDiffModel.getUpdated()).hasSize(1);
+        ClassDiffModel classDiffModel = jarDiffModel.getUpdated().get(0);
+
+        assertThat(classDiffModel.getAnnotations().getDeleted()).containsExactly(DEPRECATED);
+        assertThat(classDiffModel.getAnnotations().getAdded()).isEmpty();
+
+        List<DiffModel<List<String>, List<String>>> fieldAnnotations = classDiffModel.getFieldAnnotations();
+        assertThat(fieldAnnotations).extracting(DiffModel::getName).containsExactly("annotatedField", "plainField");
+        assertThat(fieldAnnotations.get(0).getDeleted()).containsExactly(DEPRECATED);
+        assertThat(fieldAnnotations.get(1).getAdded()).containsExactly(DEPRECATED);
+
+        assertThat(classDiffModel.getMethods().getUnchanged()).contains("public plainMethod():void");
+        assertThat(classDiffModel.getMethods().getUpdated()).hasSize(1);
+        var methodDiff = classDiffModel.getMethods().getUpdated().get(0);
+        assertThat(methodDiff.getName()).isEqualTo("annotatedMethod");
+        assertThat(methodDiff.getAdded().getAnnotations()).containsExactly("@java.beans.Transient(value=false)");
+        assertThat(methodDiff.getUnchanged().getAnnotations()).containsExactly(DEPRECATED);
+    }
+
+    @Test
+    public void shouldShareRenderedAnnotations() throws IOException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        ClassSignature classSignature = SignatureUtils.readSignature(
+                new ClassReader(classLoader.getResourceAsStream("classes/annotation/ClassWithAnnotations.class")), -1, -1);
+        ClassSignature updatedClassSignature = SignatureUtils.readSignature(
+                new ClassReader(classLoader.getResourceAsStream("classes/annotation/updated/ClassWithAnnotations.class")), -1, -1);
+
+        String annotation = classSignature.getAnnotations().get(0);
+        assertThat(classSignature.getFieldAnnotations().get("annotatedField").get(0)).isSameAs(annotation);
+        assertThat(updatedClassSignature.getFieldAnnotations().get("plainField").get(0)).isSameAs(annotation);
+        assertThat(classSignature.hasSameSemantics(updatedClassSignature)).isFalse();
+    }
+}
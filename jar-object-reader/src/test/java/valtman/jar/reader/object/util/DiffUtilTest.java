@@ -1,7 +1,17 @@
 package valtman.jar.reader.object.util;
 
 import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Opcodes;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.model.signature.MethodSignature;
+import valtman.jar.reader.util.ClassHashUtils;
+import valtman.jar.reader.util.SignatureUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -27,4 +37,60 @@ class DiffUtilTest {
         assertThat(MethodDiffUtil.getReadableAccess(0)).isEmpty();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldTreatRecompiledClassAsUnchanged() throws IOException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        ClassReader classReader = new ClassReader(classLoader.getResourceAsStream("classes/method/ClassWithTwoMethods.class"));
+        ClassReader recompiledClassReader = new ClassReader(classLoader.getResourceAsStream("classes/method/recompiled/ClassWithTwoMethods.class"));
+
+        ClassSignature classSignature = SignatureUtils.readSignature(classReader, -1, -1, true);
+        ClassSignature recompiledClassSignature = SignatureUtils.readSignature(recompiledClassReader, -1, -1, true);
+        assertThat(classSignature.hasSameSemantics(recompiledClassSignature)).isTrue();
+
+        JarDiffModel jarDiffModel = DiffUtil.compareClass("test", classReader, recompiledClassReader, true);
+        assertThat(jarDiffModel.getUnchanged()).containsExactly("test");
+        assertThat(jarDiffModel.getUpdated()).isNull();
+    }
+
+    @Test
+    public void shouldDetectRenameToNameWithSameStringHash() {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        ClassSignature classSignature = classSignature("Aa");
+        ClassSignature renamedClassSignature = classSignature("BB");
+        assertThat(classSignature.hasSameSemantics(renamedClassSignature)).isFalse();
+
+        JarDiffModel jarDiffModel = DiffUtil.compareClass("test", classSignature, renamedClassSignature);
+        assertThat(jarDiffModel.getUnchanged()).isNull();
+        assertThat(jarDiffModel.getUpdated()).hasSize(1);
+        var classDiff = jarDiffModel.getUpdated().get(0);
+        assertThat(classDiff.getSupperClass().getDeleted()).isEqualTo("pkg.Aa");
+        assertThat(classDiff.getSupperClass().getAdded()).isEqualTo("pkg.BB");
+        assertThat(classDiff.getInterfaces().getDeleted()).containsExactly("pkg.Aa");
+        assertThat(classDiff.getInterfaces().getAdded()).containsExactly("pkg.BB");
+        assertThat(classDiff.getMethods().getDeleted()).hasSize(1);
+        assertThat(classDiff.getMethods().getAdded()).hasSize(1);
+    }
+
+    private static ClassSignature classSignature(String symbol) {
+        MethodSignature method = MethodSignature.builder()
+                .access(Opcodes.ACC_PUBLIC)
+                .name(symbol)
+                .desc("()V")
+                .exceptions(List.of())
+                .build();
+        List<String> interfaces = List.of("pkg/" + symbol);
+        List<String> annotations = List.of("@pkg." + symbol);
+        return ClassSignature.builder()
+                .name("pkg/Test")
+                .access(Opcodes.ACC_PUBLIC)
+                .superName("pkg/" + symbol)
+                .interfaces(interfaces)
+                .methods(Map.of(method.getKey(), method))
+                .crc(-1)
+                .size(-1)
+                .semanticHash(ClassHashUtils.getSemanticHash("pkg/Test", Opcodes.ACC_PUBLIC, "pkg/" + symbol, interfaces,
+                        List.of(method), annotations, Map.of()))
+                .annotations(annotations)
+                .build();
+    }
+}
@@ -80,6 +80,28 @@ public class MethodDiffUtilTest {
 
     }
 
+    @Test
+    public void shouldShowMethodWithChangedImplementation() throws IOException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        ClassReader classReader = new ClassReader(classLoader.getResourceAsStream("classes/method/ClassWithTwoMethods.class"));
+        ClassReader updatedClassReader = new ClassReader(classLoader.getResourceAsStream("classes/method/body/ClassWithTwoMethods.class"));
+
+        assertThat(DiffUtil.compareClass("test", classReader, updatedClassReader).getUnchanged()).containsExactly("test");
+
+        JarDiffModel jarDiffModel = DiffUtil.compareClass("test", classReader, updatedClassReader, true);
+        checkContainsOnlyOneUpdatedClass(jarDiffModel);
+
+        ClassDiffModel classDiffModel = jarDiffModel.getUpdated().get(0);
+        assertThat(classDiffModel.getMethods().getUnchanged())
+                .containsExactlyInAnyOrder(DEFAULT_CONSTRUCTOR, UNCHANGED_METHOD);
+        assertThat(classDiffModel.getMethods().getUpdated()).hasSize(1);
+
+        var updatedMethodDiff = classDiffModel.getMethods().getUpdated().get(0);
+        assertThat(updatedMethodDiff.getName()).isEqualTo("methodToUpdate");
+        assertThat(updatedMethodDiff.getUpdated().isImplementationChanged()).isTrue();
+        assertThat(updatedMethodDiff.getUnchanged().getAccess()).isEqualTo("private");
+    }
+
     private void checkContainsOnlyOneUpdatedClass(JarDiffModel jarDiffModel) {
         assertThat(jarDiffModel).isNotNull();
         assertThat(jarDiffModel.getAdded()).isNull();
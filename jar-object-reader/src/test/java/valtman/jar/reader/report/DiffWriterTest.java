@@ -0,0 +1,122 @@
+package valtman.jar.reader.report;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.object.JarObjectReaderService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static valtman.jar.reader.object.test.TestJars.getJar;
+import static valtman.jar.reader.object.test.TestJars.readJar;
+import static valtman.jar.reader.object.test.TestJars.writeFatJar;
+
+public class DiffWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private final JarObjectReaderService jarService = new JarObjectReaderService();
+
+    @Test
+    public void shouldReadBackBinaryReport() throws Exception {
+        JarDiffModel diff = jarService.getDiff(getJar("jar/test-1.jar"), getJar("jar/test-2.jar"));
+
+        JarDiffModel readDiff = BinaryDiffReader.read(new ByteArrayInputStream(writeBinary(diff)));
+
+        assertThat(readDiff.getAdded()).containsExactlyInAnyOrderElementsOf(diff.getAdded());
+        assertThat(readDiff.getDeleted()).containsExactlyInAnyOrderElementsOf(diff.getDeleted());
+        assertThat(readDiff.getUnchanged()).containsExactlyInAnyOrderElementsOf(diff.getUnchanged());
+        assertThat(readDiff.getUpdated()).hasSize(1);
+        ClassDiffModel updatedClass = readDiff.getUpdated().get(0);
+        assertThat(updatedClass.getSupperClass().getAdded()).isEqualTo("valtman.test.jar.unchanged.FirstClass");
+        assertThat(updatedClass.getMethods().getAdded()).contains("methodToAdd(java.lang.String):java.lang.Object");
+        assertThat(updatedClass.getMethods().getUpdated().get(0).getName()).isEqualTo("methodToUpdate");
+        assertThat(writeJson(readDiff)).isEqualTo(writeJson(diff));
+    }
+
+    @Test
+    public void shouldWriteReportWhilePublishing() throws Exception {
+        File firstJar = getJar("jar/test-1.jar");
+        File secondJar = getJar("jar/test-2.jar");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryDiffWriter writer = new BinaryDiffWriter(output)) {
+            writer.write("test", jarService.publishDiff(firstJar, secondJar)).get(10, TimeUnit.SECONDS);
+        }
+
+        JarDiffModel readDiff = BinaryDiffReader.read(new ByteArrayInputStream(output.toByteArray()));
+
+        assertThat(readDiff.getName()).isEqualTo("test");
+        assertThat(readDiff.getAdded()).containsExactly("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(readDiff.getDeleted()).containsExactly("valtman/test/jar/deleted/ClassToDelete.class");
+        assertThat(readDiff.getUnchanged()).hasSize(4);
+        assertThat(readDiff.getUpdated()).extracting(ClassDiffModel::getName)
+                .containsExactly("valtman/test/jar/updated/ClassToUpdate.class");
+    }
+
+    @Test
+    public void shouldWriteNestedJarsWhilePublishing() throws Exception {
+        byte[] firstJar = readJar("jar/test-1.jar");
+        byte[] secondJar = readJar("jar/test-2.jar");
+        Path firstFatJar = writeFatJar(directory.resolve("first.war"), Map.of(
+                "WEB-INF/lib/library.jar", firstJar,
+                "WEB-INF/lib/deleted.jar", firstJar));
+        Path secondFatJar = writeFatJar(directory.resolve("second.war"), Map.of(
+                "WEB-INF/lib/library.jar", secondJar,
+                "WEB-INF/lib/added.jar", secondJar));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryDiffWriter writer = new BinaryDiffWriter(output)) {
+            writer.write("test", jarService.publishDiff(firstFatJar.toFile(), secondFatJar.toFile())).get(10, TimeUnit.SECONDS);
+        }
+
+        JarDiffModel readDiff = BinaryDiffReader.read(new ByteArrayInputStream(output.toByteArray()));
+
+        DiffModel<List<String>, List<JarDiffModel>> nestedJars = readDiff.getNestedJars();
+        assertThat(nestedJars.getAdded()).containsExactly("WEB-INF/lib/added.jar");
+        assertThat(nestedJars.getDeleted()).containsExactly("WEB-INF/lib/deleted.jar");
+        assertThat(nestedJars.getUpdated()).hasSize(1);
+        JarDiffModel libraryDiff = nestedJars.getUpdated().get(0);
+        assertThat(libraryDiff.getName()).isEqualTo("WEB-INF/lib/library.jar");
+        assertThat(libraryDiff.getAdded()).containsExactly("valtman/test/jar/added/ClassToAdd.class");
+        assertThat(libraryDiff.getUpdated()).extracting(ClassDiffModel::getName)
+                .containsExactly("valtman/test/jar/updated/ClassToUpdate.class");
+    }
+
+    @Test
+    public void shouldWriteJsonReport() throws Exception {
+        JarDiffModel diff = jarService.getDiff(getJar("jar/test-1.jar"), getJar("jar/test-2.jar"));
+
+        String json = writeJson(diff);
+
+        assertThat(json).startsWith("{\"classes\":[{\"type\":\"ADDED\",\"name\":\"valtman/test/jar/added/ClassToAdd.class\"}");
+        assertThat(json).contains("\"superClass\":{\"added\":\"valtman.test.jar.unchanged.FirstClass\"");
+        assertThat(json).endsWith("]}");
+    }
+
+    private static byte[] writeBinary(JarDiffModel diff) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryDiffWriter writer = new BinaryDiffWriter(output)) {
+            writer.write(diff);
+        }
+        return output.toByteArray();
+    }
+
+    private static String writeJson(JarDiffModel diff) throws IOException {
+        StringWriter output = new StringWriter();
+        try (JsonDiffWriter writer = new JsonDiffWriter(output)) {
+            writer.write(diff);
+        }
+        return output.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package valtman.jar.reader.service;
+
+import org.junit.jupiter.api.Test;
+import valtman.jar.reader.exception.UnableToReadJarException;
+import valtman.jar.reader.model.JarPair;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.diff.JarPairDiffModel;
+import valtman.jar.reader.object.JarObjectReaderService;
+import valtman.jar.reader.source.ClassEntry;
+import valtman.jar.reader.source.ReaderBackend;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static valtman.jar.reader.object.test.TestJars.getJar;
+
+public class BatchJarReaderServiceTest {
+
+    @Test
+    public void shouldCompareAllPairsAndReportFailedOnes() throws URISyntaxException {
+        File firstJar = getJar("jar/test-1.jar");
+        File secondJar = getJar("jar/test-2.jar");
+        File invalidJar = getJar("jar/invalid.jar");
+        BatchJarReaderService batchService = new BatchJarReaderService(
+                config -> new JarObjectReaderService(ReaderBackend.JAR_FILE, config, null), 2);
+
+        List<JarPairDiffModel> results = batchService.getDiffs(List.of(
+                new JarPair(firstJar, secondJar),
+                new JarPair(secondJar, firstJar),
+                new JarPair(firstJar, invalidJar)))
+                .collect(Collectors.toList());
+
+        assertThat(results).hasSize(3);
+        Map<Boolean, List<JarPairDiffModel>> resultsByFailure = results.stream()
+                .collect(Collectors.partitioningBy(JarPairDiffModel::isFailed));
+
+        assertThat(resultsByFailure.get(true)).hasSize(1);
+        JarPairDiffModel failedResult = resultsByFailure.get(true).get(0);
+        assertThat(failedResult.getPair().getSecondJar()).isEqualTo(invalidJar);
+        assertThat(failedResult.getError()).isInstanceOf(UnableToReadJarException.class);
+
+        assertThat(resultsByFailure.get(false)).hasSize(2);
+        resultsByFailure.get(false).forEach(result -> {
+            assertThat(result.getDiff().getUpdated()).hasSize(1);
+            assertThat(result.getDiff().getUnchanged()).hasSize(4);
+        });
+    }
+
+    @Test
+    public void shouldOpenJarsOnBatchExecutorAndPropagateErrors() throws URISyntaxException {
+        File jar = getJar("jar/test-1.jar");
+        ExecutorService ioExecutor = Executors.newCachedThreadPool();
+        PipelineConfig pipelineConfig = PipelineConfig.defaultConfig()
+                .toBuilder()
+                .ioExecutor(ioExecutor)
+                .build();
+        List<PipelineConfig> serviceConfigs = new ArrayList<>();
+        BatchJarReaderService batchService = new BatchJarReaderService(config -> {
+            serviceConfigs.add(config);
+            return (firstJar, secondJar) -> {
+                throw new OutOfMemoryError("Test error");
+            };
+        }, pipelineConfig, 1);
+
+        assertThat(serviceConfigs).extracting(PipelineConfig::getIoExecutor).containsExactly(ioExecutor);
+        assertThatThrownBy(() -> batchService.getDiffs(List.of(new JarPair(jar, jar))).count())
+                .isInstanceOf(OutOfMemoryError.class);
+        ioExecutor.shutdown();
+    }
+
+    @Test
+    public void shouldPropagateErrorsThrownInsideDiffJobs() throws URISyntaxException {
+        File firstJar = getJar("jar/test-1.jar");
+        File secondJar = getJar("jar/test-2.jar");
+        BatchJarReaderService batchService = new BatchJarReaderService(config ->
+                new JarObjectReaderService(ReaderBackend.JAR_FILE, config, null) {
+                    @Override
+                    protected JarDiffModel compareClass(String name, ClassEntry firstEntry, ClassEntry secondEntry) {
+                        throw new StackOverflowError("Test error");
+                    }
+                }, 2);
+
+        assertThatThrownBy(() -> batchService.getDiffs(List.of(new JarPair(firstJar, secondJar))).count())
+                .isInstanceOf(StackOverflowError.class);
+    }
+
+    @Test
+    public void shouldCompleteOnIoExecutorNoLargerThanBatch() throws URISyntaxException {
+        File firstJar = getJar("jar/test-1.jar");
+        File secondJar = getJar("jar/test-2.jar");
+        ExecutorService ioExecutor = Executors.newFixedThreadPool(1);
+        PipelineConfig pipelineConfig = PipelineConfig.defaultConfig()
+                .toBuilder()
+                .ioExecutor(ioExecutor)
+                .build();
+        BatchJarReaderService batchService = new BatchJarReaderService(
+                config -> new JarObjectReaderService(ReaderBackend.JAR_FILE, config, null), pipelineConfig, 1);
+
+        List<JarPair> pairs = Collections.nCopies(5, new JarPair(firstJar, secondJar));
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertThat(batchService.getDiffs(pairs))
+                .hasSize(5)
+                .noneMatch(JarPairDiffModel::isFailed));
+        ioExecutor.shutdown();
+    }
+}
@@ -0,0 +1,107 @@
+package valtman.jar.reader.source;
+
+import org.junit.jupiter.api.Test;
+import valtman.jar.reader.exception.UnableToReadJarException;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static valtman.jar.reader.object.test.TestJars.readJar;
+
+public class MappedJarClassSourceTest {
+    private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+
+    @Test
+    public void shouldRejectNameLengthBeyondArchive() throws IOException, URISyntaxException {
+        ByteBuffer jar = readTestJar();
+        jar.putShort(findFirstClassHeader(jar) + 28, (short) 0xFFFF);
+
+        assertUnreadable(jar);
+    }
+
+    @Test
+    public void shouldRejectCentralDirectoryOffsetBeyondArchive() throws IOException, URISyntaxException {
+        ByteBuffer jar = readTestJar();
+        jar.putInt(findSignature(jar, END_OF_CENTRAL_DIRECTORY_SIGNATURE) + 16, jar.limit() - 4);
+
+        assertUnreadable(jar);
+    }
+
+    @Test
+    public void shouldRejectLocalHeaderOffsetBeyondArchive() throws IOException, URISyntaxException {
+        ByteBuffer jar = readTestJar();
+        int header = findFirstClassHeader(jar);
+        jar.putInt(header + 42, jar.limit() - 4);
+
+        assertUnreadableEntry(jar, header);
+    }
+
+    @Test
+    public void shouldRejectCompressedSizeBeyondArchive() throws IOException, URISyntaxException {
+        ByteBuffer jar = readTestJar();
+        int header = findFirstClassHeader(jar);
+        jar.putInt(header + 20, 0x7FFFFFF0);
+
+        assertUnreadableEntry(jar, header);
+    }
+
+    @Test
+    public void shouldRejectSizeBeyondCompressionRatio() throws IOException, URISyntaxException {
+        ByteBuffer jar = readTestJar();
+        int header = findFirstClassHeader(jar);
+        jar.putInt(header + 24, 0x7FFFFFF0);
+
+        assertUnreadableEntry(jar, header);
+    }
+
+    private static void assertUnreadable(ByteBuffer jar) {
+        assertThatThrownBy(() -> new MappedJarClassSource("test-1.jar", jar))
+                .isInstanceOf(UnableToReadJarException.class)
+                .hasCauseInstanceOf(ZipException.class);
+    }
+
+    private static void assertUnreadableEntry(ByteBuffer jar, int header) {
+        MappedJarClassSource source = new MappedJarClassSource("test-1.jar", jar);
+        ClassEntry entry = source.getEntry(readName(jar, header));
+        assertThat(entry).isNotNull();
+
+        assertThatThrownBy(entry::getBytes)
+                .isInstanceOf(UnableToReadJarException.class)
+                .hasCauseInstanceOf(ZipException.class);
+    }
+
+    private static ByteBuffer readTestJar() throws IOException, URISyntaxException {
+        return ByteBuffer.wrap(readJar("jar/test-1.jar")).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int findFirstClassHeader(ByteBuffer jar) {
+        for (int offset = 0; offset <= jar.limit() - 4; offset++) {
+            if (jar.getInt(offset) == CENTRAL_DIRECTORY_SIGNATURE && readName(jar, offset).endsWith(".class")) {
+                return offset;
+            }
+        }
+        throw new IllegalStateException("No class entry in the central directory");
+    }
+
+    private static int findSignature(ByteBuffer jar, int signature) {
+        for (int offset = jar.limit() - 4; offset >= 0; offset--) {
+            if (jar.getInt(offset) == signature) {
+                return offset;
+            }
+        }
+        throw new IllegalStateException("No signature " + Integer.toHexString(signature));
+    }
+
+    private static String readName(ByteBuffer jar, int header) {
+        byte[] name = new byte[Short.toUnsignedInt(jar.getShort(header + 28))];
+        jar.duplicate().position(header + 46).get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,30 @@
+package valtman.jar.reader.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MethodBodyHasherTest {
+
+    @Test
+    public void shouldHashConstantsWithCollidingHashCodesApart() {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        assertThat(hashLdc("Aa")).isNotEqualTo(hashLdc("BB"));
+
+        assertThat(Long.hashCode(1L)).isEqualTo(Long.hashCode(4294967296L));
+        assertThat(hashLdc(1L)).isNotEqualTo(hashLdc(4294967296L));
+        assertThat(hashLdc(1L)).isNotEqualTo(hashLdc(1));
+
+        assertThat(hashLdc("Aa")).isEqualTo(hashLdc(new String("Aa")));
+    }
+
+    private static long hashLdc(Object constant) {
+        AtomicLong hash = new AtomicLong();
+        MethodBodyHasher hasher = new MethodBodyHasher(hash::set);
+        hasher.visitLdcInsn(constant);
+        hasher.visitEnd();
+        return hash.get();
+    }
+}
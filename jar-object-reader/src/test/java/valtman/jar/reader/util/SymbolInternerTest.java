@@ -0,0 +1,28 @@
+package valtman.jar.reader.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SymbolInternerTest {
+
+    @Test
+    public void shouldInternSymbols() {
+        String symbol = SymbolInterner.intern(new String("java/lang/String"));
+
+        assertThat(SymbolInterner.intern(new String("java/lang/String"))).isSameAs(symbol);
+        assertThat(SymbolInterner.intern((String) null)).isNull();
+    }
+
+    @Test
+    public void shouldMemoiseReadableRenderings() {
+        String descriptor = SymbolInterner.intern("(Ljava/lang/String;[I)Ljava/util/List;");
+
+        assertThat(SymbolInterner.getReadableClassName("java/util/Map$Entry")).isEqualTo("java.util.Map$Entry");
+        assertThat(SymbolInterner.getReadableArgumentTypes(descriptor)).containsExactly("java.lang.String", "int[]");
+        assertThat(SymbolInterner.getReadableReturnType(descriptor)).isEqualTo("java.util.List");
+        assertThat(SymbolInterner.getReadableDescriptor(descriptor)).isEqualTo("(java.lang.String,int[]):java.util.List");
+        assertThat(SymbolInterner.getReadableArgumentTypes(new String(descriptor)))
+                .isSameAs(SymbolInterner.getReadableArgumentTypes(descriptor));
+    }
+}
@@ -0,0 +1,49 @@
+package valtman.jar.reader.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SymbolTableTest {
+
+    @Test
+    public void shouldInternSymbolsUnderStableIds() {
+        SymbolTable symbolTable = new SymbolTable();
+        String symbol = symbolTable.intern(new String("java/lang/String"));
+
+        assertThat(symbolTable.intern(new String("java/lang/String"))).isSameAs(symbol);
+        assertThat(symbolTable.getSymbol(symbolTable.getId("java/lang/String"))).isSameAs(symbol);
+        assertThat(symbolTable.intern((String) null)).isNull();
+    }
+
+    @Test
+    public void shouldFindIdWithoutRegistering() {
+        SymbolTable symbolTable = new SymbolTable();
+        int id = symbolTable.getId("java/lang/String");
+
+        assertThat(symbolTable.findId("java/lang/String")).isEqualTo(id);
+        assertThat(symbolTable.findId("java/lang/Object")).isEqualTo(SymbolTable.NO_ID);
+        assertThat(symbolTable.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldAssignDistinctIdsConcurrently() {
+        SymbolTable symbolTable = new SymbolTable();
+        List<String> symbols = IntStream.range(0, 20_000)
+                .mapToObj(i -> "symbol" + (i % 10_000))
+                .collect(Collectors.toList());
+
+        Set<Integer> ids = symbols.parallelStream()
+                .map(symbol -> symbolTable.getId(symbolTable.intern(symbol)))
+                .collect(Collectors.toSet());
+
+        assertThat(ids).hasSize(10_000);
+        assertThat(symbolTable.size()).isEqualTo(10_000);
+        symbols.forEach(symbol -> assertThat(symbolTable.getSymbol(symbolTable.getId(symbol))).isEqualTo(symbol));
+    }
+}
@@ -0,0 +1,63 @@
+package valtman.jar.reader.cache;
+
+import valtman.jar.reader.metrics.DiffMetricsListener;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.JarSignature;
+import valtman.jar.reader.service.AbstractJarReaderService;
+import valtman.jar.reader.service.JarReaderService;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Diffs jars through their signature indexes, jars seen before are neither inflated nor parsed again.
+ */
+public class CachingJarReaderService implements JarReaderService {
+
+    private final Executor executor;
+    private final AbstractJarReaderService jarReaderService;
+    private final SignatureIndexCache signatureIndexCache;
+
+    public CachingJarReaderService(AbstractJarReaderService jarReaderService, SignatureIndexCache signatureIndexCache) {
+        this.executor = jarReaderService.getPipelineConfig().getIoExecutor();
+        this.jarReaderService = jarReaderService;
+        this.signatureIndexCache = signatureIndexCache;
+    }
+
+    @Override
+    public JarDiffModel getDiff(File firstJar, File secondJar) {
+        CompletableFuture<JarSignature> firstSignature = CompletableFuture.supplyAsync(() -> readSignatures(firstJar), executor);
+        CompletableFuture<JarSignature> secondSignature = CompletableFuture.supplyAsync(() -> readSignatures(secondJar), executor);
+        return firstSignature.thenCombine(secondSignature, jarReaderService::getDiff).join();
+    }
+
+    /**
+     * Registers the listener with the wrapped service, which compares the signatures.
+     */
+    @Override
+    public void addMetricsListener(DiffMetricsListener listener) {
+        jarReaderService.addMetricsListener(listener);
+    }
+
+    public JarSignature readSignatures(File jarFile) {
+        if (jarFile.isDirectory()) {
+            return jarReaderService.readSignatures(jarFile);
+        }
+        boolean methodBodies = jarReaderService.getPipelineConfig().isCompareMethodBodies();
+        String key = signatureIndexCache.getKey(jarFile, methodBodies);
+        return signatureIndexCache.get(key)
+                //an index without body hashes would hide changed bodies, so it counts as a miss
+                .filter(jarSignature -> jarSignature.isMethodBodies() == methodBodies)
+                .map(jarSignature -> JarSignature.builder()
+                        .name(jarFile.getName())
+                        .classes(jarSignature.getClasses())
+                        .methodBodies(methodBodies)
+                        .build())
+                .orElseGet(() -> {
+                    JarSignature jarSignature = jarReaderService.readSignatures(jarFile);
+                    signatureIndexCache.put(key, jarSignature);
+                    return jarSignature;
+                });
+    }
+}
@@ -0,0 +1,115 @@
+package valtman.jar.reader.cache;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import valtman.jar.reader.model.signature.JarSignature;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-process cache of parsed jars keyed by path, modification time, size and parse mode, so a jar which has not
+ * changed since the previous comparison is not parsed again, and a jar read without method bodies is not reused
+ * by a diff which compares them. Entries are weighted by their class count and the least
+ * recently used ones are evicted when the total weight exceeds the limit.
+ */
+public class JarSignatureMemoryCache {
+
+    private final long maxWeight;
+    private final Map<Key, JarSignature> signatures = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public JarSignatureMemoryCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Returns the cached signatures of the jar or loads them. Loading runs outside of the cache lock,
+     * so a jar requested concurrently by two callers may be parsed twice. Directories are never cached,
+     * their modification time does not change with the class files deeper in the tree.
+     */
+    public JarSignature get(File jarFile, boolean methodBodies, Function<File, JarSignature> loader) {
+        if (jarFile.isDirectory()) {
+            return loader.apply(jarFile);
+        }
+        Key key = Key.of(jarFile, methodBodies);
+        JarSignature jarSignature;
+        synchronized (this) {
+            jarSignature = signatures.get(key);
+        }
+        if (jarSignature != null) {
+            hitCount.incrementAndGet();
+            return jarSignature;
+        }
+        missCount.incrementAndGet();
+        jarSignature = loader.apply(jarFile);
+        put(key, jarSignature);
+        return jarSignature;
+    }
+
+    public synchronized void invalidateAll() {
+        signatures.clear();
+        weight = 0;
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized int getSize() {
+        return signatures.size();
+    }
+
+    public CacheStats getStats() {
+        return CacheStats.builder()
+                .hitCount(hitCount.get())
+                .missCount(missCount.get())
+                .evictionCount(evictionCount.get())
+                .build();
+    }
+
+    private synchronized void put(Key key, JarSignature jarSignature) {
+        long jarWeight = weigh(jarSignature);
+        if (jarWeight > maxWeight) {
+            return;
+        }
+        JarSignature previous = signatures.put(key, jarSignature);
+        if (previous != null) {
+            weight -= weigh(previous);
+        }
+        weight += jarWeight;
+
+        Iterator<JarSignature> leastRecentlyUsed = signatures.values().iterator();
+        while (weight > maxWeight && leastRecentlyUsed.hasNext()) {
+            weight -= weigh(leastRecentlyUsed.next());
+            leastRecentlyUsed.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private static long weigh(JarSignature jarSignature) {
+        return Math.max(1, jarSignature.getClasses().size());
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String path;
+        private final long lastModified;
+        private final long size;
+        private final boolean methodBodies;
+
+        private static Key of(File jarFile, boolean methodBodies) {
+            File file = jarFile.getAbsoluteFile();
+            return new Key(file.toPath().normalize().toString(), file.lastModified(), file.length(), methodBodies);
+        }
+    }
+}
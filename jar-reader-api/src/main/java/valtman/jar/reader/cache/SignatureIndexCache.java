@@ -0,0 +1,181 @@
+package valtman.jar.reader.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import valtman.jar.reader.exception.UnableToReadJarException;
+import valtman.jar.reader.model.signature.JarSignature;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Directory of signature indexes keyed by the SHA-256 of the jar content and the parse mode. The directory can be shared by
+ * several processes: indexes are published with an atomic move and eviction runs under a file lock.
+ * Least recently used indexes are evicted when the total size exceeds the limit.
+ */
+public class SignatureIndexCache {
+    private static final String INDEX_SUFFIX = ".sig";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String LOCK_FILE = "cache.lock";
+    private static final String METHOD_BODIES_SUFFIX = "-bodies";
+    private static final Duration STALE_TEMP_FILE_AGE = Duration.ofHours(1);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long maxSize;
+
+    public SignatureIndexCache(Path directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't create signature cache directory " + directory, e);
+        }
+    }
+
+    /**
+     * Returns the key of the jar content read in the given parse mode, indexes with and without method body hashes
+     * are stored apart.
+     */
+    public String getKey(File jarFile, boolean methodBodies) {
+        try (InputStream inputStream = Files.newInputStream(jarFile.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder key = new StringBuilder();
+            for (byte value : digest.digest()) {
+                key.append(Character.forDigit((value >> 4) & 0xF, 16))
+                        .append(Character.forDigit(value & 0xF, 16));
+            }
+            return methodBodies ? key.append(METHOD_BODIES_SUFFIX).toString() : key.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new UnableToReadJarException("Can't read jar file " + jarFile.getName(), e);
+        }
+    }
+
+    public Optional<JarSignature> get(String key) {
+        Path index = getIndexPath(key);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(index), BUFFER_SIZE))) {
+            JarSignature jarSignature = SignatureIndexCodec.read(input, Files.size(index));
+            Files.setLastModifiedTime(index, FileTime.from(Instant.now()));
+            return Optional.of(jarSignature);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            //unreadable indexes count as misses, including corrupt ones the codec could not tell apart
+            deleteQuietly(index);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The cache is only an optimisation, an index which can't be written is skipped.
+     */
+    public void put(String key, JarSignature jarSignature) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+                SignatureIndexCodec.write(jarSignature, output);
+            }
+            Files.move(temp, getIndexPath(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Optional.ofNullable(temp).ifPresent(SignatureIndexCache::deleteQuietly);
+            return;
+        }
+        evict();
+    }
+
+    private synchronized void evict() {
+        try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            List<IndexFile> indexes;
+            try (Stream<Path> files = Files.list(directory)) {
+                indexes = files.map(IndexFile::of)
+                        .flatMap(Optional::stream)
+                        .sorted(Comparator.comparing(IndexFile::getLastModified).reversed())
+                        .collect(Collectors.toList());
+            }
+            long totalSize = 0;
+            Instant staleTime = Instant.now().minus(STALE_TEMP_FILE_AGE);
+            for (IndexFile index : indexes) {
+                if (index.isTemp()) {
+                    if (index.getLastModified().isBefore(staleTime)) {
+                        deleteQuietly(index.getPath());
+                    }
+                    continue;
+                }
+                totalSize += index.getSize();
+                if (totalSize > maxSize) {
+                    deleteQuietly(index.getPath());
+                }
+            }
+        } catch (OverlappingFileLockException e) {
+            //another cache instance of this process evicts the same directory right now
+        } catch (IOException e) {
+            //eviction is retried on the next put
+        }
+    }
+
+    private Path getIndexPath(String key) {
+        return directory.resolve(key + INDEX_SUFFIX);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            //the file is still in use by another process, it would be deleted next time
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class IndexFile {
+        private final Path path;
+        private final long size;
+        private final Instant lastModified;
+        private final boolean temp;
+
+        private static Optional<IndexFile> of(Path path) {
+            String fileName = path.getFileName().toString();
+            boolean temp = fileName.endsWith(TEMP_SUFFIX);
+            if (!temp && !fileName.endsWith(INDEX_SUFFIX)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new IndexFile(path, Files.size(path), Files.getLastModifiedTime(path).toInstant(), temp));
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package valtman.jar.reader.cache;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.model.signature.JarSignature;
+import valtman.jar.reader.model.signature.MethodSignature;
+import valtman.jar.reader.util.SymbolInterner;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Binary form of a {@link JarSignature}: a string table followed by classes and methods which refer to it by index.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class SignatureIndexCodec {
+    private static final int MAGIC = 0x4A534947;
+    private static final int VERSION = 7;
+    private static final int NULL_STRING = -1;
+
+    public static void write(JarSignature jarSignature, DataOutputStream output) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        collectStrings(jarSignature, strings);
+
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeBoolean(jarSignature.isMethodBodies());
+        output.writeInt(strings.size());
+        for (String string : strings.keySet()) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        writeString(jarSignature.getName(), strings, output);
+        output.writeInt(jarSignature.getClasses().size());
+        for (Map.Entry<String, ClassSignature> entry : jarSignature.getClasses().entrySet()) {
+            ClassSignature classSignature = entry.getValue();
+            writeString(entry.getKey(), strings, output);
+            writeString(classSignature.getName(), strings, output);
+            output.writeInt(classSignature.getAccess());
+            writeString(classSignature.getSuperName(), strings, output);
+            output.writeLong(classSignature.getCrc());
+            output.writeLong(classSignature.getSize());
+            output.writeLong(classSignature.getSemanticHash());
+            writeStrings(classSignature.getInterfaces(), strings, output);
+            writeStrings(classSignature.getAnnotations(), strings, output);
+            output.writeInt(classSignature.getFieldAnnotations().size());
+            for (Map.Entry<String, List<String>> field : classSignature.getFieldAnnotations().entrySet()) {
+                writeString(field.getKey(), strings, output);
+                writeStrings(field.getValue(), strings, output);
+            }
+            output.writeInt(classSignature.getMethods().size());
+            for (MethodSignature method : classSignature.getMethods().values()) {
+                output.writeInt(method.getAccess());
+                writeString(method.getName(), strings, output);
+                writeString(method.getDesc(), strings, output);
+                writeStrings(method.getExceptions(), strings, output);
+                output.writeLong(method.getBodyHash());
+                writeStrings(method.getAnnotations(), strings, output);
+            }
+        }
+    }
+
+    /**
+     * Reads an index of the given length in bytes. Counts and string indexes are checked against it,
+     * so a truncated or corrupt index fails with an {@link IOException} instead of allocating what it claims.
+     */
+    public static JarSignature read(DataInputStream input, long length) throws IOException {
+        if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException("Unsupported signature index format");
+        }
+        boolean methodBodies = input.readBoolean();
+        String[] strings = new String[readCount(input, length)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[readLength(input, length)];
+            input.readFully(bytes);
+            strings[i] = SymbolInterner.intern(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        String name = readString(strings, input);
+        int classCount = readCount(input, length);
+        Map<String, ClassSignature> classes = new HashMap<>(classCount * 2);
+        for (int i = 0; i < classCount; i++) {
+            String entryName = readString(strings, input);
+            ClassSignature.ClassSignatureBuilder classSignature = ClassSignature.builder()
+                    .name(readString(strings, input))
+                    .access(input.readInt())
+                    .superName(readString(strings, input))
+                    .crc(input.readLong())
+                    .size(input.readLong())
+                    .semanticHash(input.readLong())
+                    .interfaces(readStrings(strings, input, length))
+                    .annotations(readStrings(strings, input, length));
+            int fieldCount = readCount(input, length);
+            Map<String, List<String>> fieldAnnotations = new HashMap<>(fieldCount * 2);
+            for (int j = 0; j < fieldCount; j++) {
+                fieldAnnotations.put(readString(strings, input), readStrings(strings, input, length));
+            }
+            int methodCount = readCount(input, length);
+            Map<String, MethodSignature> methods = new HashMap<>(methodCount * 2);
+            for (int j = 0; j < methodCount; j++) {
+                MethodSignature method = MethodSignature.builder()
+                        .access(input.readInt())
+                        .name(readString(strings, input))
+                        .desc(readString(strings, input))
+                        .exceptions(readStrings(strings, input, length))
+                        .bodyHash(input.readLong())
+                        .annotations(readStrings(strings, input, length))
+                        .build();
+                methods.put(method.getKey(), method);
+            }
+            classes.put(entryName, classSignature
+                    .methods(Collections.unmodifiableMap(methods))
+                    .fieldAnnotations(Collections.unmodifiableMap(fieldAnnotations))
+                    .build());
+        }
+        return JarSignature.builder()
+                .name(name)
+                .methodBodies(methodBodies)
+                .classes(Collections.unmodifiableMap(classes))
+                .build();
+    }
+
+    private static void collectStrings(JarSignature jarSignature, Map<String, Integer> strings) {
+        addString(jarSignature.getName(), strings);
+        jarSignature.getClasses().forEach((entryName, classSignature) -> {
+            addString(entryName, strings);
+            addString(classSignature.getName(), strings);
+            addString(classSignature.getSuperName(), strings);
+            classSignature.getInterfaces().forEach(name -> addString(name, strings));
+            classSignature.getAnnotations().forEach(annotation -> addString(annotation, strings));
+            classSignature.getFieldAnnotations().forEach((field, annotations) -> {
+                addString(field, strings);
+                annotations.forEach(annotation -> addString(annotation, strings));
+            });
+            classSignature.getMethods().values().forEach(method -> {
+                addString(method.getName(), strings);
+                addString(method.getDesc(), strings);
+                method.getExceptions().forEach(name -> addString(name, strings));
+                method.getAnnotations().forEach(annotation -> addString(annotation, strings));
+            });
+        });
+    }
+
+    private static void addString(String string, Map<String, Integer> strings) {
+        if (Objects.nonNull(string)) {
+            strings.putIfAbsent(string, strings.size());
+        }
+    }
+
+    private static void writeString(String string, Map<String, Integer> strings, DataOutputStream output) throws IOException {
+        output.writeInt(Objects.isNull(string) ? NULL_STRING : strings.get(string));
+    }
+
+    private static void writeStrings(List<String> values, Map<String, Integer> strings, DataOutputStream output) throws IOException {
+        output.writeInt(values.size());
+        for (String value : values) {
+            writeString(value, strings, output);
+        }
+    }
+
+    private static String readString(String[] strings, DataInputStream input) throws IOException {
+        int index = input.readInt();
+        if (index == NULL_STRING) {
+            return null;
+        }
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Corrupt signature index, string " + index + " is out of the string table");
+        }
+        return strings[index];
+    }
+
+    private static List<String> readStrings(String[] strings, DataInputStream input, long length) throws IOException {
+        int count = readCount(input, length);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(strings, input));
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Reads a count of items which take at least an int each, so there can't be more of them than ints in the index.
+     */
+    private static int readCount(DataInputStream input, long length) throws IOException {
+        return checkLength(input.readInt(), length / Integer.BYTES);
+    }
+
+    private static int readLength(DataInputStream input, long length) throws IOException {
+        return checkLength(input.readInt(), length);
+    }
+
+    private static int checkLength(int value, long maxValue) throws IOException {
+        if (value < 0 || value > maxValue) {
+            throw new IOException("Corrupt signature index, " + value + " exceeds the index length");
+        }
+        return value;
+    }
+}
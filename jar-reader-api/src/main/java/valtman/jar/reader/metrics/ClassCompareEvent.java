@@ -0,0 +1,21 @@
+package valtman.jar.reader.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Comparison of a single class, recorded for slow classes only since a diff compares every changed class.
+ */
+@Name("valtman.jar.reader.ClassCompare")
+@Label("Class Compare")
+@Category({"Jar Reader", "Diff"})
+@Description("Parsing and comparison of a class present in both jars")
+@Threshold("10 ms")
+public class ClassCompareEvent extends Event {
+    @Label("Class")
+    public String className;
+}
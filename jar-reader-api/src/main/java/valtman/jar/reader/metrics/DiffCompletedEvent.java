@@ -0,0 +1,61 @@
+package valtman.jar.reader.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A whole diff with its {@link DiffMetrics}, stage times are summed over all workers.
+ */
+@Name("valtman.jar.reader.Diff")
+@Label("Jar Diff")
+@Category({"Jar Reader", "Diff"})
+@Description("Diff of two jars with the time spent per stage")
+public class DiffCompletedEvent extends Event {
+    @Label("Failed")
+    public boolean failed;
+    @Label("Load Time")
+    @Timespan
+    public long loadTime;
+    @Label("Inflate Time")
+    @Timespan
+    public long inflateTime;
+    @Label("Parse Time")
+    @Timespan
+    public long parseTime;
+    @Label("Compare Time")
+    @Timespan
+    public long compareTime;
+    @Label("Merge Time")
+    @Timespan
+    public long mergeTime;
+    @Label("Bytes Inflated")
+    @DataAmount
+    public long bytesInflated;
+    @Label("Classes Parsed")
+    public long classesParsed;
+    @Label("Classes Unchanged")
+    @Description("Classes found unchanged by their CRC-32 and size without being parsed")
+    public long classesUnchanged;
+    @Label("Classes Compared")
+    public long classesCompared;
+    @Label("Methods Compared")
+    public long methodsCompared;
+
+    public void setMetrics(DiffMetrics metrics) {
+        loadTime = metrics.getNanos(DiffMetrics.Stage.LOAD);
+        inflateTime = metrics.getNanos(DiffMetrics.Stage.INFLATE);
+        parseTime = metrics.getNanos(DiffMetrics.Stage.PARSE);
+        compareTime = metrics.getNanos(DiffMetrics.Stage.COMPARE);
+        mergeTime = metrics.getNanos(DiffMetrics.Stage.MERGE);
+        bytesInflated = metrics.getCount(DiffMetrics.Counter.BYTES_INFLATED);
+        classesParsed = metrics.getCount(DiffMetrics.Counter.CLASSES_PARSED);
+        classesUnchanged = metrics.getCount(DiffMetrics.Counter.CLASSES_UNCHANGED);
+        classesCompared = metrics.getCount(DiffMetrics.Counter.CLASSES_COMPARED);
+        methodsCompared = metrics.getCount(DiffMetrics.Counter.METHODS_COMPARED);
+    }
+}
@@ -0,0 +1,96 @@
+package valtman.jar.reader.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Time spent per stage and counters of a single diff, updated concurrently by the workers. Stage times are
+ * summed over all workers, so on a parallel diff they add up to more than the elapsed time.
+ */
+public class DiffMetrics {
+
+    public enum Stage {
+        /**
+         * Opening the jars and reading their central directories.
+         */
+        LOAD,
+        INFLATE,
+        /**
+         * Reading class signatures ahead of the comparison.
+         */
+        PARSE,
+        /**
+         * Comparing a class. Engines comparing straight from class files inflate and parse within this stage,
+         * so it includes their share of {@link #INFLATE}.
+         */
+        COMPARE,
+        /**
+         * Merging the partial diffs of the parallel workers.
+         */
+        MERGE
+    }
+
+    public enum Counter {
+        BYTES_INFLATED,
+        /**
+         * Classes whose signatures were read ahead of the comparison.
+         */
+        CLASSES_PARSED,
+        /**
+         * Classes found unchanged by their CRC-32 and size without being parsed.
+         */
+        CLASSES_UNCHANGED,
+        CLASSES_COMPARED,
+        /**
+         * Methods in the method diffs of the updated classes.
+         */
+        METHODS_COMPARED
+    }
+
+    private final LongAdder[] stageNanos = newAdders(Stage.values().length);
+    private final LongAdder[] counters = newAdders(Counter.values().length);
+
+    public void record(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()].add(nanos);
+    }
+
+    public void add(Counter counter, long value) {
+        counters[counter.ordinal()].add(value);
+    }
+
+    public <R> R time(Stage stage, Supplier<R> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    public long getNanos(Stage stage) {
+        return stageNanos[stage.ordinal()].sum();
+    }
+
+    public long getCount(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (Stage stage : Stage.values()) {
+            result.append(stage.name().toLowerCase()).append(": ").append(getNanos(stage) / 1_000_000).append(" ms, ");
+        }
+        for (Counter counter : Counter.values()) {
+            result.append(counter.name().toLowerCase()).append(": ").append(getCount(counter)).append(", ");
+        }
+        return result.substring(0, result.length() - 2);
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        Arrays.setAll(adders, i -> new LongAdder());
+        return adders;
+    }
+}
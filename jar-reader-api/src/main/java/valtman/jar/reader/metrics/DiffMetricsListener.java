@@ -0,0 +1,10 @@
+package valtman.jar.reader.metrics;
+
+/**
+ * Receives the metrics of every diff once it is completed, failed or cancelled.
+ */
+@FunctionalInterface
+public interface DiffMetricsListener {
+
+    void onDiffCompleted(DiffMetrics metrics);
+}
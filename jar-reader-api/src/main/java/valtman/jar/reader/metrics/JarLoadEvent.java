@@ -0,0 +1,16 @@
+package valtman.jar.reader.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("valtman.jar.reader.JarLoad")
+@Label("Jar Load")
+@Category({"Jar Reader", "Diff"})
+@Description("Opening of a jar, directory or classpath compared by a diff")
+public class JarLoadEvent extends Event {
+    @Label("Source")
+    public String source;
+}
@@ -0,0 +1,48 @@
+package valtman.jar.reader.metrics;
+
+import lombok.RequiredArgsConstructor;
+import valtman.jar.reader.source.ClassEntry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Entry which records the time spent reading and inflating its content and the number of bytes read.
+ */
+@RequiredArgsConstructor
+public class MeteredClassEntry implements ClassEntry {
+    private final ClassEntry entry;
+    private final DiffMetrics metrics;
+
+    @Override
+    public String getName() {
+        return entry.getName();
+    }
+
+    @Override
+    public long getCrc() {
+        return entry.getCrc();
+    }
+
+    @Override
+    public long getSize() {
+        return entry.getSize();
+    }
+
+    @Override
+    public byte[] getBytes() {
+        long start = System.nanoTime();
+        byte[] bytes = entry.getBytes();
+        metrics.record(DiffMetrics.Stage.INFLATE, System.nanoTime() - start);
+        metrics.add(DiffMetrics.Counter.BYTES_INFLATED, bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public ByteBuffer getBuffer() {
+        long start = System.nanoTime();
+        ByteBuffer buffer = entry.getBuffer();
+        metrics.record(DiffMetrics.Stage.INFLATE, System.nanoTime() - start);
+        metrics.add(DiffMetrics.Counter.BYTES_INFLATED, buffer.remaining());
+        return buffer;
+    }
+}
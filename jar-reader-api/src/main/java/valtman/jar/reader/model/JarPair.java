@@ -0,0 +1,15 @@
+package valtman.jar.reader.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.File;
+
+@Getter
+@Builder
+@RequiredArgsConstructor
+public class JarPair {
+    private final File firstJar;
+    private final File secondJar;
+}
@@ -16,4 +16,5 @@ public class MethodModel {
     private final List<String> argumentTypes;
     private final List<String> annotations;
     private final String access;
+    private final boolean implementationChanged;
 }
@@ -0,0 +1,58 @@
+package valtman.jar.reader.model.diff;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of the comparison of a single class, published as soon as the class is compared.
+ * The diff of the nested jars, if there are any, is published as the last event of a jar.
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor
+public class ClassDiffEvent {
+    private final Type type;
+    private final String name;
+    /**
+     * Diff of the class, present for updated classes only.
+     */
+    private final ClassDiffModel classDiff;
+    /**
+     * Diff of the nested jars, present for the nested jars event only.
+     */
+    private final DiffModel<List<String>, List<JarDiffModel>> nestedJars;
+
+    public static ClassDiffEvent added(String name) {
+        return new ClassDiffEvent(Type.ADDED, name, null, null);
+    }
+
+    public static ClassDiffEvent deleted(String name) {
+        return new ClassDiffEvent(Type.DELETED, name, null, null);
+    }
+
+    public static ClassDiffEvent unchanged(String name) {
+        return new ClassDiffEvent(Type.UNCHANGED, name, null, null);
+    }
+
+    /**
+     * Converts the diff of a class present in both jars.
+     */
+    public static ClassDiffEvent of(String name, JarDiffModel classDiff) {
+        if (Objects.nonNull(classDiff.getUpdated()) && !classDiff.getUpdated().isEmpty()) {
+            return new ClassDiffEvent(Type.UPDATED, name, classDiff.getUpdated().get(0), null);
+        }
+        return unchanged(name);
+    }
+
+    public static ClassDiffEvent nestedJars(DiffModel<List<String>, List<JarDiffModel>> nestedJars) {
+        return new ClassDiffEvent(Type.NESTED_JARS, nestedJars.getName(), null, nestedJars);
+    }
+
+    public enum Type {
+        ADDED, DELETED, UPDATED, UNCHANGED, NESTED_JARS
+    }
+}
@@ -16,5 +16,9 @@ public class ClassDiffModel {
     private final DiffModel<String, String> access;
     private final DiffModel<List<String>, List<String>> interfaces;
     private final DiffModel<List<String>, List<String>> annotations;
+    /**
+     * Annotation diffs of the fields whose annotations changed, named by field.
+     */
+    private final List<DiffModel<List<String>, List<String>>> fieldAnnotations;
     private final DiffModel<List<String>, List<DiffModel<MethodModel, MethodModel>>> methods;
 }
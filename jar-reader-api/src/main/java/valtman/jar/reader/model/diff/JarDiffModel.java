@@ -7,9 +7,15 @@ import java.util.List;
 
 @Getter
 public class JarDiffModel extends DiffModel<List<String>, List<ClassDiffModel>> {
+    /**
+     * Names of the added, deleted and unchanged nested jars and the diffs of the updated ones, null for a plain jar.
+     */
+    private final DiffModel<List<String>, List<JarDiffModel>> nestedJars;
 
     @Builder(builderMethodName = "jarDiffBuilder")
-    public JarDiffModel(String name, List<String> added, List<ClassDiffModel> updated, List<String> deleted, List<String> unchanged) {
+    public JarDiffModel(String name, List<String> added, List<ClassDiffModel> updated, List<String> deleted, List<String> unchanged,
+                        DiffModel<List<String>, List<JarDiffModel>> nestedJars) {
         super(name, added, updated, deleted, unchanged);
+        this.nestedJars = nestedJars;
     }
 }
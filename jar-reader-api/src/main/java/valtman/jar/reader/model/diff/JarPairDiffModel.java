@@ -0,0 +1,24 @@
+package valtman.jar.reader.model.diff;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import valtman.jar.reader.model.JarPair;
+
+import java.util.Objects;
+
+/**
+ * Result of one pair of a batch, either the diff or the error which failed the pair.
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor
+public class JarPairDiffModel {
+    private final JarPair pair;
+    private final JarDiffModel diff;
+    private final Throwable error;
+
+    public boolean isFailed() {
+        return Objects.nonNull(error);
+    }
+}
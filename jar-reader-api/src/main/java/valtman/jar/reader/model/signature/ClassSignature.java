@@ -0,0 +1,65 @@
+package valtman.jar.reader.model.signature;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import valtman.jar.reader.source.ClassEntry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Getter
+@Builder
+@RequiredArgsConstructor
+public class ClassSignature {
+    /**
+     * Semantic hash of a signature which was not read from a class file.
+     */
+    public static final long NO_SEMANTIC_HASH = 0;
+
+    private final String name;
+    private final int access;
+    private final String superName;
+    private final List<String> interfaces;
+    private final Map<String, MethodSignature> methods;
+    private final long crc;
+    private final long size;
+    private final long semanticHash;
+    private final List<String> annotations;
+    /**
+     * Annotations of the annotated fields keyed by field name.
+     */
+    private final Map<String, List<String>> fieldAnnotations;
+
+    public List<String> getAnnotations() {
+        return Objects.isNull(annotations) ? List.of() : annotations;
+    }
+
+    public Map<String, List<String>> getFieldAnnotations() {
+        return Objects.isNull(fieldAnnotations) ? Map.of() : fieldAnnotations;
+    }
+
+    /**
+     * Compares the CRC-32 and uncompressed size of the class files the signatures were read from.
+     */
+    public boolean hasSameContent(ClassSignature other) {
+        return crc >= 0 && size >= 0
+                && crc == other.crc
+                && size == other.size;
+    }
+
+    /**
+     * Compares the semantic hashes of two signatures, see {@link valtman.jar.reader.util.ClassHashUtils}.
+     * Equal hashes mean there is nothing a diff would report, different hashes mean nothing.
+     */
+    public boolean hasSameSemantics(ClassSignature other) {
+        return semanticHash != NO_SEMANTIC_HASH && semanticHash == other.semanticHash;
+    }
+
+    public boolean hasSameContent(ClassEntry entry) {
+        return crc >= 0 && size >= 0
+                && crc == entry.getCrc()
+                && size == entry.getSize();
+    }
+}
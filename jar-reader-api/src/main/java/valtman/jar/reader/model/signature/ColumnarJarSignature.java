@@ -0,0 +1,472 @@
+package valtman.jar.reader.model.signature;
+
+import lombok.Getter;
+import valtman.jar.reader.source.ClassEntry;
+import valtman.jar.reader.util.SymbolTable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Signatures of all classes of a jar kept in primitive columns. Names and descriptors are ids of a {@link SymbolTable}
+ * shared by the jars compared with each other, nested collections are ranges of flat arrays given by offset columns,
+ * so a class costs a few array slots instead of a graph of objects. Classes are sorted by the id of their entry name and the methods
+ * of a class by name and descriptor ids, which lets two jars be compared by merging their columns.
+ * A {@link Builder} fills the columns while the classes are read, without the signatures of the whole jar.
+ * {@link ClassSignature} and {@link MethodSignature} views are created only on request.
+ */
+public class ColumnarJarSignature {
+    public static final int NO_SYMBOL = -1;
+
+    @Getter
+    private final String name;
+    @Getter
+    private final SymbolTable symbolTable;
+
+    private final int[] entryNames;
+    private final int[] classNames;
+    private final int[] classAccess;
+    private final int[] superNames;
+    private final long[] crcs;
+    private final long[] sizes;
+    private final long[] semanticHashes;
+    private final int[] interfaceOffsets;
+    private final int[] interfaces;
+    private final int[] annotationOffsets;
+    private final int[] annotations;
+    private final int[] fieldOffsets;
+    private final int[] fieldNames;
+    private final int[] fieldAnnotationOffsets;
+    private final int[] fieldAnnotations;
+
+    private final int[] methodOffsets;
+    private final int[] methodAccess;
+    private final int[] methodNames;
+    private final int[] methodDescs;
+    private final long[] methodBodyHashes;
+    private final int[] exceptionOffsets;
+    private final int[] exceptions;
+    private final int[] methodAnnotationOffsets;
+    private final int[] methodAnnotations;
+
+    public static ColumnarJarSignature of(JarSignature jarSignature, SymbolTable symbolTable) {
+        Builder builder = builder(jarSignature.getName(), symbolTable);
+        jarSignature.getClasses().forEach(builder::add);
+        return builder.build();
+    }
+
+    public static Builder builder(String name, SymbolTable symbolTable) {
+        return new Builder(name, symbolTable);
+    }
+
+    private ColumnarJarSignature(Builder builder) {
+        this.name = builder.name;
+        this.symbolTable = builder.symbolTable;
+
+        int[] classOrder = builder.getClassOrder();
+        entryNames = select(builder.entryNames.toArray(), classOrder);
+        classNames = select(builder.classNames.toArray(), classOrder);
+        classAccess = select(builder.classAccess.toArray(), classOrder);
+        superNames = select(builder.superNames.toArray(), classOrder);
+        crcs = select(builder.crcs.toArray(), classOrder);
+        sizes = select(builder.sizes.toArray(), classOrder);
+        semanticHashes = select(builder.semanticHashes.toArray(), classOrder);
+
+        int[] builderInterfaceOffsets = builder.interfaceOffsets.toOffsets(builder.interfaces.size());
+        interfaceOffsets = offsets(classOrder, builderInterfaceOffsets);
+        interfaces = select(builder.interfaces.toArray(), expand(classOrder, builderInterfaceOffsets));
+
+        int[] builderAnnotationOffsets = builder.annotationOffsets.toOffsets(builder.annotations.size());
+        annotationOffsets = offsets(classOrder, builderAnnotationOffsets);
+        annotations = select(builder.annotations.toArray(), expand(classOrder, builderAnnotationOffsets));
+
+        int[] builderFieldOffsets = builder.fieldOffsets.toOffsets(builder.fieldNames.size());
+        int[] fieldOrder = expand(classOrder, builderFieldOffsets);
+        fieldOffsets = offsets(classOrder, builderFieldOffsets);
+        fieldNames = select(builder.fieldNames.toArray(), fieldOrder);
+        int[] builderFieldAnnotationOffsets = builder.fieldAnnotationOffsets.toOffsets(builder.fieldAnnotations.size());
+        fieldAnnotationOffsets = offsets(fieldOrder, builderFieldAnnotationOffsets);
+        fieldAnnotations = select(builder.fieldAnnotations.toArray(), expand(fieldOrder, builderFieldAnnotationOffsets));
+
+        int[] builderMethodOffsets = builder.methodOffsets.toOffsets(builder.methodNames.size());
+        int[] methodOrder = expand(classOrder, builderMethodOffsets);
+        methodOffsets = offsets(classOrder, builderMethodOffsets);
+        methodAccess = select(builder.methodAccess.toArray(), methodOrder);
+        methodNames = select(builder.methodNames.toArray(), methodOrder);
+        methodDescs = select(builder.methodDescs.toArray(), methodOrder);
+        methodBodyHashes = select(builder.methodBodyHashes.toArray(), methodOrder);
+        int[] builderExceptionOffsets = builder.exceptionOffsets.toOffsets(builder.exceptions.size());
+        exceptionOffsets = offsets(methodOrder, builderExceptionOffsets);
+        exceptions = select(builder.exceptions.toArray(), expand(methodOrder, builderExceptionOffsets));
+        int[] builderMethodAnnotationOffsets = builder.methodAnnotationOffsets.toOffsets(builder.methodAnnotations.size());
+        methodAnnotationOffsets = offsets(methodOrder, builderMethodAnnotationOffsets);
+        methodAnnotations = select(builder.methodAnnotations.toArray(), expand(methodOrder, builderMethodAnnotationOffsets));
+    }
+
+    public int getClassCount() {
+        return entryNames.length;
+    }
+
+    /**
+     * Returns the index of the class stored under the entry name or a negative value if there is no such class.
+     */
+    public int findClass(String entryName) {
+        int id = symbolTable.findId(entryName);
+        return id == SymbolTable.NO_ID ? NO_SYMBOL : Arrays.binarySearch(entryNames, id);
+    }
+
+    public int getEntryNameId(int classIndex) {
+        return entryNames[classIndex];
+    }
+
+    public int getClassNameId(int classIndex) {
+        return classNames[classIndex];
+    }
+
+    public int getClassAccess(int classIndex) {
+        return classAccess[classIndex];
+    }
+
+    public int getSuperNameId(int classIndex) {
+        return superNames[classIndex];
+    }
+
+    /**
+     * Compares the CRC-32 and uncompressed size of two classes, see {@link ClassSignature#hasSameContent(ClassSignature)}.
+     */
+    public boolean hasSameContent(int classIndex, ColumnarJarSignature other, int otherClassIndex) {
+        return crcs[classIndex] >= 0 && sizes[classIndex] >= 0
+                && crcs[classIndex] == other.crcs[otherClassIndex]
+                && sizes[classIndex] == other.sizes[otherClassIndex];
+    }
+
+    /**
+     * Compares the CRC-32 and uncompressed size of the class with those of a jar entry.
+     */
+    public boolean hasSameContent(int classIndex, ClassEntry entry) {
+        return crcs[classIndex] >= 0 && sizes[classIndex] >= 0
+                && crcs[classIndex] == entry.getCrc()
+                && sizes[classIndex] == entry.getSize();
+    }
+
+    /**
+     * Compares the semantic hashes of two classes, see {@link ClassSignature#hasSameSemantics(ClassSignature)}.
+     */
+    public boolean hasSameSemantics(int classIndex, ColumnarJarSignature other, int otherClassIndex) {
+        return semanticHashes[classIndex] != ClassSignature.NO_SEMANTIC_HASH
+                && semanticHashes[classIndex] == other.semanticHashes[otherClassIndex];
+    }
+
+    public int[] getInterfaceIds(int classIndex) {
+        return Arrays.copyOfRange(interfaces, interfaceOffsets[classIndex], interfaceOffsets[classIndex + 1]);
+    }
+
+    public List<String> getAnnotations(int classIndex) {
+        return toSymbols(annotations, annotationOffsets[classIndex], annotationOffsets[classIndex + 1]);
+    }
+
+    /**
+     * Returns the annotations of the annotated fields of the class keyed by field name.
+     */
+    public Map<String, List<String>> getFieldAnnotations(int classIndex) {
+        return IntStream.range(fieldOffsets[classIndex], fieldOffsets[classIndex + 1])
+                .boxed()
+                .collect(Collectors.toUnmodifiableMap(field -> getSymbol(fieldNames[field]),
+                        field -> toSymbols(fieldAnnotations, fieldAnnotationOffsets[field], fieldAnnotationOffsets[field + 1])));
+    }
+
+    public int getMethodStart(int classIndex) {
+        return methodOffsets[classIndex];
+    }
+
+    public int getMethodEnd(int classIndex) {
+        return methodOffsets[classIndex + 1];
+    }
+
+    public int getMethodAccess(int methodIndex) {
+        return methodAccess[methodIndex];
+    }
+
+    public int getMethodNameId(int methodIndex) {
+        return methodNames[methodIndex];
+    }
+
+    public int getMethodDescId(int methodIndex) {
+        return methodDescs[methodIndex];
+    }
+
+    /**
+     * Compares the thrown exceptions of two methods regardless of their order.
+     */
+    public boolean hasSameExceptions(int methodIndex, ColumnarJarSignature other, int otherMethodIndex) {
+        return hasSameIds(exceptions, exceptionOffsets, methodIndex, other.exceptions, other.exceptionOffsets, otherMethodIndex);
+    }
+
+    /**
+     * Compares the annotations of two methods regardless of their order.
+     */
+    public boolean hasSameAnnotations(int methodIndex, ColumnarJarSignature other, int otherMethodIndex) {
+        return hasSameIds(methodAnnotations, methodAnnotationOffsets, methodIndex,
+                other.methodAnnotations, other.methodAnnotationOffsets, otherMethodIndex);
+    }
+
+    /**
+     * Compares the body hashes of two methods, see {@link MethodSignature#hasSameBody(MethodSignature)}.
+     */
+    public boolean hasSameBody(int methodIndex, ColumnarJarSignature other, int otherMethodIndex) {
+        long bodyHash = methodBodyHashes[methodIndex];
+        long otherBodyHash = other.methodBodyHashes[otherMethodIndex];
+        return bodyHash == MethodSignature.NO_BODY_HASH || otherBodyHash == MethodSignature.NO_BODY_HASH
+                || bodyHash == otherBodyHash;
+    }
+
+    public String getSymbol(int id) {
+        return id == NO_SYMBOL ? null : symbolTable.getSymbol(id);
+    }
+
+    public MethodSignature getMethodSignature(int methodIndex) {
+        return MethodSignature.builder()
+                .access(methodAccess[methodIndex])
+                .name(getSymbol(methodNames[methodIndex]))
+                .desc(getSymbol(methodDescs[methodIndex]))
+                .exceptions(toSymbols(exceptions, exceptionOffsets[methodIndex], exceptionOffsets[methodIndex + 1]))
+                .bodyHash(methodBodyHashes[methodIndex])
+                .annotations(toSymbols(methodAnnotations, methodAnnotationOffsets[methodIndex], methodAnnotationOffsets[methodIndex + 1]))
+                .build();
+    }
+
+    public ClassSignature getClassSignature(int classIndex) {
+        return ClassSignature.builder()
+                .name(getSymbol(classNames[classIndex]))
+                .access(classAccess[classIndex])
+                .superName(getSymbol(superNames[classIndex]))
+                .interfaces(toSymbols(interfaces, interfaceOffsets[classIndex], interfaceOffsets[classIndex + 1]))
+                .methods(IntStream.range(getMethodStart(classIndex), getMethodEnd(classIndex))
+                        .mapToObj(this::getMethodSignature)
+                        .collect(Collectors.toUnmodifiableMap(MethodSignature::getKey, method -> method)))
+                .crc(crcs[classIndex])
+                .size(sizes[classIndex])
+                .semanticHash(semanticHashes[classIndex])
+                .annotations(getAnnotations(classIndex))
+                .fieldAnnotations(getFieldAnnotations(classIndex))
+                .build();
+    }
+
+    private static boolean hasSameIds(int[] ids, int[] offsets, int index, int[] otherIds, int[] otherOffsets, int otherIndex) {
+        int[] values = Arrays.stream(ids, offsets[index], offsets[index + 1])
+                .distinct()
+                .sorted()
+                .toArray();
+        int[] otherValues = Arrays.stream(otherIds, otherOffsets[otherIndex], otherOffsets[otherIndex + 1])
+                .distinct()
+                .sorted()
+                .toArray();
+        return Arrays.equals(values, otherValues);
+    }
+
+    private List<String> toSymbols(int[] ids, int from, int to) {
+        return Arrays.stream(ids, from, to)
+                .mapToObj(this::getSymbol)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static int[] select(int[] values, int[] order) {
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = values[order[i]];
+        }
+        return result;
+    }
+
+    private static long[] select(long[] values, int[] order) {
+        long[] result = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = values[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the indexes of the nested values of the ordered items, such as the methods of the ordered classes.
+     */
+    private static int[] expand(int[] order, int[] offsets) {
+        IntStream.Builder result = IntStream.builder();
+        for (int item : order) {
+            for (int value = offsets[item]; value < offsets[item + 1]; value++) {
+                result.add(value);
+            }
+        }
+        return result.build().toArray();
+    }
+
+    /**
+     * Returns the offsets of the nested values of the ordered items once the values are ordered with {@link #expand}.
+     */
+    private static int[] offsets(int[] order, int[] offsets) {
+        int[] result = new int[order.length + 1];
+        for (int i = 0; i < order.length; i++) {
+            result[i + 1] = result[i] + offsets[order[i] + 1] - offsets[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Collects the classes of a jar into growing columns as they are read, so only the class being added exists
+     * as objects. Classes may be added from several threads in any order, they are sorted once the jar is built.
+     * A class added twice under the same entry name is kept once.
+     */
+    public static class Builder {
+        private final String name;
+        private final SymbolTable symbolTable;
+
+        private final IntColumn entryNames = new IntColumn();
+        private final IntColumn classNames = new IntColumn();
+        private final IntColumn classAccess = new IntColumn();
+        private final IntColumn superNames = new IntColumn();
+        private final LongColumn crcs = new LongColumn();
+        private final LongColumn sizes = new LongColumn();
+        private final LongColumn semanticHashes = new LongColumn();
+        private final IntColumn interfaceOffsets = new IntColumn();
+        private final IntColumn interfaces = new IntColumn();
+        private final IntColumn annotationOffsets = new IntColumn();
+        private final IntColumn annotations = new IntColumn();
+        private final IntColumn fieldOffsets = new IntColumn();
+        private final IntColumn fieldNames = new IntColumn();
+        private final IntColumn fieldAnnotationOffsets = new IntColumn();
+        private final IntColumn fieldAnnotations = new IntColumn();
+
+        private final IntColumn methodOffsets = new IntColumn();
+        private final IntColumn methodAccess = new IntColumn();
+        private final IntColumn methodNames = new IntColumn();
+        private final IntColumn methodDescs = new IntColumn();
+        private final LongColumn methodBodyHashes = new LongColumn();
+        private final IntColumn exceptionOffsets = new IntColumn();
+        private final IntColumn exceptions = new IntColumn();
+        private final IntColumn methodAnnotationOffsets = new IntColumn();
+        private final IntColumn methodAnnotations = new IntColumn();
+
+        private Builder(String name, SymbolTable symbolTable) {
+            this.name = name;
+            this.symbolTable = symbolTable;
+        }
+
+        public Builder add(String entryName, ClassSignature classSignature) {
+            List<MethodSignature> methods = classSignature.getMethods()
+                    .values()
+                    .stream()
+                    .sorted(Comparator.<MethodSignature>comparingInt(method -> symbolTable.getId(method.getName()))
+                            .thenComparingInt(method -> symbolTable.getId(method.getDesc())))
+                    .collect(Collectors.toList());
+            synchronized (this) {
+                entryNames.add(symbolTable.getId(entryName));
+                classNames.add(getId(classSignature.getName()));
+                classAccess.add(classSignature.getAccess());
+                superNames.add(getId(classSignature.getSuperName()));
+                crcs.add(classSignature.getCrc());
+                sizes.add(classSignature.getSize());
+                semanticHashes.add(classSignature.getSemanticHash());
+
+                interfaceOffsets.add(interfaces.size());
+                classSignature.getInterfaces().forEach(interfaceName -> interfaces.add(symbolTable.getId(interfaceName)));
+                annotationOffsets.add(annotations.size());
+                classSignature.getAnnotations().forEach(annotation -> annotations.add(symbolTable.getId(annotation)));
+
+                fieldOffsets.add(fieldNames.size());
+                classSignature.getFieldAnnotations().forEach((fieldName, fieldAnnotationNames) -> {
+                    fieldNames.add(symbolTable.getId(fieldName));
+                    fieldAnnotationOffsets.add(fieldAnnotations.size());
+                    fieldAnnotationNames.forEach(annotation -> fieldAnnotations.add(symbolTable.getId(annotation)));
+                });
+
+                methodOffsets.add(methodNames.size());
+                for (MethodSignature method : methods) {
+                    methodAccess.add(method.getAccess());
+                    methodNames.add(symbolTable.getId(method.getName()));
+                    methodDescs.add(symbolTable.getId(method.getDesc()));
+                    methodBodyHashes.add(method.getBodyHash());
+                    exceptionOffsets.add(exceptions.size());
+                    method.getExceptions().forEach(exception -> exceptions.add(symbolTable.getId(exception)));
+                    methodAnnotationOffsets.add(methodAnnotations.size());
+                    method.getAnnotations().forEach(annotation -> methodAnnotations.add(symbolTable.getId(annotation)));
+                }
+            }
+            return this;
+        }
+
+        public synchronized ColumnarJarSignature build() {
+            return new ColumnarJarSignature(this);
+        }
+
+        /**
+         * Returns the classes in the order of their entry name ids, the first added of the same entry name only.
+         */
+        private int[] getClassOrder() {
+            int[] ids = entryNames.toArray();
+            int[] sorted = IntStream.range(0, ids.length)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingInt(classIndex -> ids[classIndex]).thenComparingInt(classIndex -> classIndex))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            IntStream.Builder order = IntStream.builder();
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || ids[sorted[i]] != ids[sorted[i - 1]]) {
+                    order.add(sorted[i]);
+                }
+            }
+            return order.build().toArray();
+        }
+
+        private int getId(String symbol) {
+            return symbol == null ? NO_SYMBOL : symbolTable.getId(symbol);
+        }
+    }
+
+    private static class IntColumn {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        /**
+         * Returns the start offsets followed by the end offset of the last item.
+         */
+        private int[] toOffsets(int end) {
+            int[] offsets = Arrays.copyOf(values, size + 1);
+            offsets[size] = end;
+            return offsets;
+        }
+    }
+
+    private static class LongColumn {
+        private long[] values = new long[16];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package valtman.jar.reader.model.signature;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Type hierarchy of a jar kept in primitive adjacency arrays. Every class of the jar and every type named
+ * as a super class or interface gets an int id, the direct supertypes and subtypes of a type are ranges of flat
+ * arrays given by offset columns, so transitive queries only walk int arrays. Classes of the jar take the ids
+ * below {@link #getClassCount()}, types outside of the jar such as {@code java/lang/Object} follow them
+ * and have no supertypes of their own.
+ */
+public class HierarchyIndex {
+    public static final int NO_TYPE = -1;
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final int classCount;
+
+    private final int[] supertypeOffsets;
+    private final int[] supertypes;
+    private final int[] subtypeOffsets;
+    private final int[] subtypes;
+
+    /**
+     * Builds the index from already read signatures, the supertypes of the classes are resolved in parallel.
+     * When several entries declare the same class, the first entry by name wins.
+     */
+    public static HierarchyIndex of(JarSignature jarSignature) {
+        return new HierarchyIndex(jarSignature.getClasses()
+                .entrySet()
+                .stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toMap(ClassSignature::getName, classSignature -> classSignature,
+                        (first, second) -> first, LinkedHashMap::new))
+                .values());
+    }
+
+    private HierarchyIndex(Collection<ClassSignature> classes) {
+        List<String> typeNames = new ArrayList<>(classes.size() * 2);
+        ids = new HashMap<>(classes.size() * 4);
+        classes.forEach(classSignature -> register(classSignature.getName(), typeNames));
+        classCount = typeNames.size();
+        classes.forEach(classSignature -> {
+            register(classSignature.getSuperName(), typeNames);
+            classSignature.getInterfaces().forEach(name -> register(name, typeNames));
+        });
+        names = typeNames.toArray(String[]::new);
+
+        ClassSignature[] classArray = classes.toArray(ClassSignature[]::new);
+        int[][] directSupertypes = IntStream.range(0, classCount)
+                .parallel()
+                .mapToObj(classId -> getSupertypeIds(classArray[classId]))
+                .toArray(int[][]::new);
+
+        supertypeOffsets = new int[names.length + 1];
+        supertypes = new int[Arrays.stream(directSupertypes).mapToInt(typeIds -> typeIds.length).sum()];
+        int[] subtypeCounts = new int[names.length];
+        int supertypeIndex = 0;
+        for (int classId = 0; classId < classCount; classId++) {
+            supertypeOffsets[classId] = supertypeIndex;
+            for (int supertype : directSupertypes[classId]) {
+                supertypes[supertypeIndex++] = supertype;
+                subtypeCounts[supertype]++;
+            }
+        }
+        Arrays.fill(supertypeOffsets, classCount, names.length + 1, supertypeIndex);
+
+        subtypeOffsets = new int[names.length + 1];
+        for (int typeId = 0; typeId < names.length; typeId++) {
+            subtypeOffsets[typeId + 1] = subtypeOffsets[typeId] + subtypeCounts[typeId];
+        }
+        subtypes = new int[supertypes.length];
+        int[] subtypeIndexes = Arrays.copyOf(subtypeOffsets, names.length);
+        for (int classId = 0; classId < classCount; classId++) {
+            for (int index = supertypeOffsets[classId]; index < supertypeOffsets[classId + 1]; index++) {
+                subtypes[subtypeIndexes[supertypes[index]]++] = classId;
+            }
+        }
+    }
+
+    public int getTypeCount() {
+        return names.length;
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * Returns the id of the type with the internal name or {@link #NO_TYPE} if the jar does not mention it.
+     */
+    public int getId(String name) {
+        return ids.getOrDefault(name, NO_TYPE);
+    }
+
+    public String getName(int typeId) {
+        return names[typeId];
+    }
+
+    public int[] getSupertypes(int typeId) {
+        return Arrays.copyOfRange(supertypes, supertypeOffsets[typeId], supertypeOffsets[typeId + 1]);
+    }
+
+    public int[] getSubtypes(int typeId) {
+        return Arrays.copyOfRange(subtypes, subtypeOffsets[typeId], subtypeOffsets[typeId + 1]);
+    }
+
+    /**
+     * Returns the ids of all types which extend or implement any of the given types directly or transitively,
+     * nearest first. The given types themselves are not included.
+     */
+    public int[] getAllSubtypes(int... typeIds) {
+        return walk(subtypeOffsets, subtypes, typeIds);
+    }
+
+    /**
+     * Returns the ids of all supertypes of the given types, nearest first. The given types themselves are not included.
+     */
+    public int[] getAllSupertypes(int... typeIds) {
+        return walk(supertypeOffsets, supertypes, typeIds);
+    }
+
+    public List<String> getAllSubtypes(String name) {
+        return toNames(getAllSubtypes(toIds(name)));
+    }
+
+    public List<String> getAllSupertypes(String name) {
+        return toNames(getAllSupertypes(toIds(name)));
+    }
+
+    private int[] walk(int[] offsets, int[] edges, int[] start) {
+        BitSet visited = new BitSet(names.length);
+        int[] queue = new int[Math.max(16, start.length)];
+        int tail = 0;
+        for (int typeId : start) {
+            if (!visited.get(typeId)) {
+                visited.set(typeId);
+                queue[tail++] = typeId;
+            }
+        }
+        int first = tail;
+        for (int head = 0; head < tail; head++) {
+            int typeId = queue[head];
+            for (int index = offsets[typeId]; index < offsets[typeId + 1]; index++) {
+                int next = edges[index];
+                if (!visited.get(next)) {
+                    visited.set(next);
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, queue.length * 2);
+                    }
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return Arrays.copyOfRange(queue, first, tail);
+    }
+
+    private int[] getSupertypeIds(ClassSignature classSignature) {
+        return IntStream.concat(
+                        IntStream.of(getId(classSignature.getSuperName())),
+                        classSignature.getInterfaces().stream().mapToInt(this::getId))
+                .filter(typeId -> typeId != NO_TYPE)
+                .distinct()
+                .toArray();
+    }
+
+    private void register(String name, List<String> typeNames) {
+        if (Objects.nonNull(name) && !ids.containsKey(name)) {
+            ids.put(name, typeNames.size());
+            typeNames.add(name);
+        }
+    }
+
+    private int[] toIds(String name) {
+        int typeId = getId(name);
+        return typeId == NO_TYPE ? new int[0] : new int[]{typeId};
+    }
+
+    private List<String> toNames(int[] typeIds) {
+        return Arrays.stream(typeIds)
+                .mapToObj(this::getName)
+                .collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,22 @@
+package valtman.jar.reader.model.signature;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Signatures of all classes of a jar, keyed by the entry name of the class file.
+ */
+@Getter
+@Builder
+@RequiredArgsConstructor
+public class JarSignature {
+    private final String name;
+    private final Map<String, ClassSignature> classes;
+    /**
+     * Whether the body hashes of the methods were read, signatures read without them never report changed bodies.
+     */
+    private final boolean methodBodies;
+}
@@ -0,0 +1,40 @@
+package valtman.jar.reader.model.signature;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.Objects;
+
+@Getter
+@Builder
+@RequiredArgsConstructor
+public class MethodSignature {
+    /**
+     * Body hash of a method read without its code.
+     */
+    public static final long NO_BODY_HASH = 0;
+
+    private final int access;
+    private final String name;
+    private final String desc;
+    private final List<String> exceptions;
+    private final long bodyHash;
+    private final List<String> annotations;
+
+    public List<String> getAnnotations() {
+        return Objects.isNull(annotations) ? List.of() : annotations;
+    }
+
+    public String getKey() {
+        return name + desc;
+    }
+
+    /**
+     * Compares the body hashes of two methods, a method read without its code is never reported as changed.
+     */
+    public boolean hasSameBody(MethodSignature other) {
+        return bodyHash == NO_BODY_HASH || other.bodyHash == NO_BODY_HASH || bodyHash == other.bodyHash;
+    }
+}
@@ -0,0 +1,30 @@
+package valtman.jar.reader.report;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Layout shared by {@link BinaryDiffWriter} and {@link BinaryDiffReader}. A jar is its name followed by tagged
+ * records and {@link #END}. Counts are unsigned variable-length integers, lists and models are prefixed with
+ * their size plus one or a presence flag so null survives the round trip. Strings are written once and then
+ * referenced by the order of their first occurrence, see {@link #NULL_STRING} and {@link #NEW_STRING}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class BinaryDiffFormat {
+    static final int MAGIC = 0x4A444946;
+    static final int VERSION = 3;
+
+    static final int END = 0;
+    static final int ADDED_CLASS = 1;
+    static final int DELETED_CLASS = 2;
+    static final int UPDATED_CLASS = 3;
+    static final int UNCHANGED_CLASS = 4;
+    static final int NESTED_JARS = 5;
+
+    static final int NULL_STRING = 0;
+    static final int NEW_STRING = 1;
+    /**
+     * Reference of the first string written, the following strings are numbered upwards.
+     */
+    static final int FIRST_STRING = 2;
+}
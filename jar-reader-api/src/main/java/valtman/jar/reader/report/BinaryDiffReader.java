@@ -0,0 +1,225 @@
+package valtman.jar.reader.report;
+
+import valtman.jar.reader.model.MethodModel;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static valtman.jar.reader.report.BinaryDiffFormat.*;
+
+/**
+ * Reads a diff written by {@link BinaryDiffWriter} back into a {@link JarDiffModel}.
+ */
+public class BinaryDiffReader {
+    private final DataInputStream input;
+    private final List<String> strings = new ArrayList<>();
+
+    private BinaryDiffReader(InputStream input) {
+        this.input = new DataInputStream(new BufferedInputStream(input));
+    }
+
+    public static JarDiffModel read(InputStream input) throws IOException {
+        BinaryDiffReader reader = new BinaryDiffReader(input);
+        if (reader.input.readInt() != MAGIC || reader.input.readInt() != VERSION) {
+            throw new IOException("Unsupported diff report format");
+        }
+        return reader.readJar();
+    }
+
+    private JarDiffModel readJar() throws IOException {
+        JarDiffModel.JarDiffModelBuilder jarDiff = JarDiffModel.jarDiffBuilder()
+                .name(readString());
+        List<String> added = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        List<ClassDiffModel> updated = new ArrayList<>();
+        List<String> unchanged = new ArrayList<>();
+        int tag;
+        while ((tag = input.readUnsignedByte()) != END) {
+            switch (tag) {
+                case ADDED_CLASS:
+                    added.add(readString());
+                    break;
+                case DELETED_CLASS:
+                    deleted.add(readString());
+                    break;
+                case UNCHANGED_CLASS:
+                    unchanged.add(readString());
+                    break;
+                case UPDATED_CLASS:
+                    updated.add(readClassDiff());
+                    break;
+                case NESTED_JARS:
+                    jarDiff.nestedJars(readNestedJars());
+                    break;
+                default:
+                    throw new IOException("Unknown diff record " + tag);
+            }
+        }
+        return jarDiff
+                .added(Collections.unmodifiableList(added))
+                .deleted(Collections.unmodifiableList(deleted))
+                .updated(Collections.unmodifiableList(updated))
+                .unchanged(Collections.unmodifiableList(unchanged))
+                .build();
+    }
+
+    private DiffModel<List<String>, List<JarDiffModel>> readNestedJars() throws IOException {
+        DiffModel.DiffModelBuilder<List<String>, List<JarDiffModel>> nestedJars = DiffModel.<List<String>, List<JarDiffModel>>builder()
+                .name(readString())
+                .added(readStrings())
+                .deleted(readStrings())
+                .unchanged(readStrings());
+        int size = readSize();
+        if (size >= 0) {
+            List<JarDiffModel> updated = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                updated.add(readJar());
+            }
+            nestedJars.updated(Collections.unmodifiableList(updated));
+        }
+        return nestedJars.build();
+    }
+
+    private ClassDiffModel readClassDiff() throws IOException {
+        ClassDiffModel.ClassDiffModelBuilder classDiff = ClassDiffModel.builder()
+                .name(readString())
+                .supperClass(readStringDiff())
+                .access(readStringDiff())
+                .interfaces(readListDiff())
+                .annotations(readListDiff());
+        int fieldCount = readSize();
+        if (fieldCount >= 0) {
+            List<DiffModel<List<String>, List<String>>> fieldAnnotations = new ArrayList<>(fieldCount);
+            for (int i = 0; i < fieldCount; i++) {
+                fieldAnnotations.add(readListDiff());
+            }
+            classDiff.fieldAnnotations(Collections.unmodifiableList(fieldAnnotations));
+        }
+        if (readPresence()) {
+            DiffModel.DiffModelBuilder<List<String>, List<DiffModel<MethodModel, MethodModel>>> methods =
+                    DiffModel.<List<String>, List<DiffModel<MethodModel, MethodModel>>>builder()
+                            .name(readString())
+                            .added(readStrings())
+                            .deleted(readStrings())
+                            .unchanged(readStrings());
+            int size = readSize();
+            if (size >= 0) {
+                List<DiffModel<MethodModel, MethodModel>> updated = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    updated.add(DiffModel.<MethodModel, MethodModel>builder()
+                            .name(readString())
+                            .added(readMethod())
+                            .updated(readMethod())
+                            .deleted(readMethod())
+                            .unchanged(readMethod())
+                            .build());
+                }
+                methods.updated(Collections.unmodifiableList(updated));
+            }
+            classDiff.methods(methods.build());
+        }
+        return classDiff.build();
+    }
+
+    private DiffModel<String, String> readStringDiff() throws IOException {
+        if (!readPresence()) {
+            return null;
+        }
+        return DiffModel.<String, String>builder()
+                .name(readString())
+                .added(readString())
+                .updated(readString())
+                .deleted(readString())
+                .unchanged(readString())
+                .build();
+    }
+
+    private DiffModel<List<String>, List<String>> readListDiff() throws IOException {
+        if (!readPresence()) {
+            return null;
+        }
+        return DiffModel.<List<String>, List<String>>builder()
+                .name(readString())
+                .added(readStrings())
+                .updated(readStrings())
+                .deleted(readStrings())
+                .unchanged(readStrings())
+                .build();
+    }
+
+    private MethodModel readMethod() throws IOException {
+        if (!readPresence()) {
+            return null;
+        }
+        return MethodModel.builder()
+                .methodName(readString())
+                .access(readString())
+                .returnType(readString())
+                .argumentTypes(readStrings())
+                .exceptions(readStrings())
+                .annotations(readStrings())
+                .implementationChanged(input.readBoolean())
+                .build();
+    }
+
+    private boolean readPresence() throws IOException {
+        return input.readUnsignedByte() != 0;
+    }
+
+    /**
+     * Returns the size of the following list or -1 for null.
+     */
+    private int readSize() throws IOException {
+        return readVarInt() - 1;
+    }
+
+    private List<String> readStrings() throws IOException {
+        int size = readSize();
+        if (size < 0) {
+            return null;
+        }
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString());
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private String readString() throws IOException {
+        int reference = readVarInt();
+        if (reference == NULL_STRING) {
+            return null;
+        }
+        if (reference != NEW_STRING) {
+            return strings.get(reference - FIRST_STRING);
+        }
+        byte[] bytes = new byte[readVarInt()];
+        input.readFully(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(value);
+        return value;
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
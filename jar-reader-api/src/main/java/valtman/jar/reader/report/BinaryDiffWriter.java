@@ -0,0 +1,191 @@
+package valtman.jar.reader.report;
+
+import valtman.jar.reader.model.MethodModel;
+import valtman.jar.reader.model.diff.ClassDiffEvent;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static valtman.jar.reader.report.BinaryDiffFormat.*;
+
+/**
+ * Writes a diff in the compact binary format read back by {@link BinaryDiffReader}.
+ */
+public class BinaryDiffWriter extends DiffWriter {
+    private final DataOutputStream output;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    public BinaryDiffWriter(OutputStream output) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(output));
+        this.output.writeInt(MAGIC);
+        this.output.writeInt(VERSION);
+    }
+
+    @Override
+    public void beginJar(String name) throws IOException {
+        writeString(name);
+    }
+
+    @Override
+    public void writeClass(ClassDiffEvent event) throws IOException {
+        switch (event.getType()) {
+            case ADDED:
+                output.write(ADDED_CLASS);
+                writeString(event.getName());
+                break;
+            case DELETED:
+                output.write(DELETED_CLASS);
+                writeString(event.getName());
+                break;
+            case UNCHANGED:
+                output.write(UNCHANGED_CLASS);
+                writeString(event.getName());
+                break;
+            case UPDATED:
+                output.write(UPDATED_CLASS);
+                writeClassDiff(event.getClassDiff());
+                break;
+            default:
+                throw new IllegalArgumentException("Not a class event: " + event.getType());
+        }
+    }
+
+    @Override
+    public void writeNestedJars(DiffModel<List<String>, List<JarDiffModel>> nestedJars) throws IOException {
+        output.write(NESTED_JARS);
+        writeString(nestedJars.getName());
+        writeStrings(nestedJars.getAdded());
+        writeStrings(nestedJars.getDeleted());
+        writeStrings(nestedJars.getUnchanged());
+        if (writeSize(nestedJars.getUpdated())) {
+            for (JarDiffModel nestedJar : nestedJars.getUpdated()) {
+                write(nestedJar);
+            }
+        }
+    }
+
+    @Override
+    public void endJar() throws IOException {
+        output.write(END);
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
+    private void writeClassDiff(ClassDiffModel classDiff) throws IOException {
+        writeString(classDiff.getName());
+        writeStringDiff(classDiff.getSupperClass());
+        writeStringDiff(classDiff.getAccess());
+        writeListDiff(classDiff.getInterfaces());
+        writeListDiff(classDiff.getAnnotations());
+        if (writeSize(classDiff.getFieldAnnotations())) {
+            for (DiffModel<List<String>, List<String>> fieldDiff : classDiff.getFieldAnnotations()) {
+                writeListDiff(fieldDiff);
+            }
+        }
+
+        DiffModel<List<String>, List<DiffModel<MethodModel, MethodModel>>> methods = classDiff.getMethods();
+        if (writePresence(methods)) {
+            writeString(methods.getName());
+            writeStrings(methods.getAdded());
+            writeStrings(methods.getDeleted());
+            writeStrings(methods.getUnchanged());
+            if (writeSize(methods.getUpdated())) {
+                for (DiffModel<MethodModel, MethodModel> methodDiff : methods.getUpdated()) {
+                    writeString(methodDiff.getName());
+                    writeMethod(methodDiff.getAdded());
+                    writeMethod(methodDiff.getUpdated());
+                    writeMethod(methodDiff.getDeleted());
+                    writeMethod(methodDiff.getUnchanged());
+                }
+            }
+        }
+    }
+
+    private void writeStringDiff(DiffModel<String, String> diff) throws IOException {
+        if (writePresence(diff)) {
+            writeString(diff.getName());
+            writeString(diff.getAdded());
+            writeString(diff.getUpdated());
+            writeString(diff.getDeleted());
+            writeString(diff.getUnchanged());
+        }
+    }
+
+    private void writeListDiff(DiffModel<List<String>, List<String>> diff) throws IOException {
+        if (writePresence(diff)) {
+            writeString(diff.getName());
+            writeStrings(diff.getAdded());
+            writeStrings(diff.getUpdated());
+            writeStrings(diff.getDeleted());
+            writeStrings(diff.getUnchanged());
+        }
+    }
+
+    private void writeMethod(MethodModel method) throws IOException {
+        if (writePresence(method)) {
+            writeString(method.getMethodName());
+            writeString(method.getAccess());
+            writeString(method.getReturnType());
+            writeStrings(method.getArgumentTypes());
+            writeStrings(method.getExceptions());
+            writeStrings(method.getAnnotations());
+            output.writeBoolean(method.isImplementationChanged());
+        }
+    }
+
+    private boolean writePresence(Object value) throws IOException {
+        output.write(Objects.isNull(value) ? 0 : 1);
+        return Objects.nonNull(value);
+    }
+
+    private boolean writeSize(List<?> values) throws IOException {
+        writeVarInt(Objects.isNull(values) ? 0 : values.size() + 1);
+        return Objects.nonNull(values);
+    }
+
+    private void writeStrings(List<String> values) throws IOException {
+        if (writeSize(values)) {
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        if (Objects.isNull(value)) {
+            writeVarInt(NULL_STRING);
+            return;
+        }
+        Integer reference = strings.get(value);
+        if (Objects.nonNull(reference)) {
+            writeVarInt(reference);
+            return;
+        }
+        strings.put(value, FIRST_STRING + strings.size());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(NEW_STRING);
+        writeVarInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+}
@@ -0,0 +1,124 @@
+package valtman.jar.reader.report;
+
+import valtman.jar.reader.model.diff.ClassDiffEvent;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Writes a jar diff record by record, so a report can be written while the jars are still being compared.
+ * A jar is written as {@link #beginJar(String)}, a {@link #writeClass(ClassDiffEvent)} per class,
+ * optionally {@link #writeNestedJars(DiffModel)} and {@link #endJar()}.
+ */
+public abstract class DiffWriter implements Closeable {
+
+    public abstract void beginJar(String name) throws IOException;
+
+    public abstract void writeClass(ClassDiffEvent event) throws IOException;
+
+    /**
+     * Writes the nested jars of the current jar, at most once and after all of its classes.
+     */
+    public abstract void writeNestedJars(DiffModel<List<String>, List<JarDiffModel>> nestedJars) throws IOException;
+
+    public abstract void endJar() throws IOException;
+
+    public void write(JarDiffModel diff) throws IOException {
+        beginJar(diff.getName());
+        for (String name : nullToEmpty(diff.getAdded())) {
+            writeClass(ClassDiffEvent.added(name));
+        }
+        for (String name : nullToEmpty(diff.getDeleted())) {
+            writeClass(ClassDiffEvent.deleted(name));
+        }
+        for (ClassDiffModel classDiff : nullToEmpty(diff.getUpdated())) {
+            writeClass(new ClassDiffEvent(ClassDiffEvent.Type.UPDATED, classDiff.getName(), classDiff, null));
+        }
+        for (String name : nullToEmpty(diff.getUnchanged())) {
+            writeClass(ClassDiffEvent.unchanged(name));
+        }
+        if (Objects.nonNull(diff.getNestedJars())) {
+            writeNestedJars(diff.getNestedJars());
+        }
+        endJar();
+    }
+
+    /**
+     * Subscribes to the published diff and writes every class as it arrives, followed by the nested jars if the diff
+     * publishes them. The returned future completes once the jar is written, or with the error of the diff or of the writer.
+     */
+    public CompletableFuture<Void> write(String name, Flow.Publisher<ClassDiffEvent> publisher) {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                if (run(() -> beginJar(name))) {
+                    subscription.request(1);
+                }
+            }
+
+            @Override
+            public void onNext(ClassDiffEvent event) {
+                if (run(() -> writeEvent(event))) {
+                    subscription.request(1);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completion.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                if (run(DiffWriter.this::endJar)) {
+                    completion.complete(null);
+                }
+            }
+
+            private boolean run(IOAction action) {
+                if (completion.isDone()) {
+                    return false;
+                }
+                try {
+                    action.run();
+                    return true;
+                } catch (IOException e) {
+                    subscription.cancel();
+                    completion.completeExceptionally(new UncheckedIOException(e));
+                    return false;
+                }
+            }
+        });
+        return completion;
+    }
+
+    private void writeEvent(ClassDiffEvent event) throws IOException {
+        if (event.getType() == ClassDiffEvent.Type.NESTED_JARS) {
+            writeNestedJars(event.getNestedJars());
+        } else {
+            writeClass(event);
+        }
+    }
+
+    protected static <T> List<T> nullToEmpty(List<T> values) {
+        return Objects.isNull(values) ? Collections.emptyList() : values;
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,298 @@
+package valtman.jar.reader.report;
+
+import valtman.jar.reader.model.MethodModel;
+import valtman.jar.reader.model.diff.ClassDiffEvent;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes a diff as JSON straight to the underlying writer. A jar is an object with its name, the array of its
+ * classes and its nested jars, null fields are left out.
+ */
+public class JsonDiffWriter extends DiffWriter {
+    private final Writer writer;
+    /**
+     * One element per open object or array, true until the first member is written.
+     */
+    private final Deque<Boolean> scopes = new ArrayDeque<>();
+    /**
+     * One element per open jar, true while its array of classes is open.
+     */
+    private final Deque<Boolean> openClasses = new ArrayDeque<>();
+    private boolean afterName;
+
+    public JsonDiffWriter(Writer writer) {
+        this.writer = new BufferedWriter(writer);
+    }
+
+    @Override
+    public void beginJar(String name) throws IOException {
+        beginObject();
+        field("name", name);
+        name("classes");
+        beginArray();
+        openClasses.push(true);
+    }
+
+    @Override
+    public void writeClass(ClassDiffEvent event) throws IOException {
+        beginObject();
+        field("type", event.getType().name());
+        field("name", event.getName());
+        ClassDiffModel classDiff = event.getClassDiff();
+        if (Objects.nonNull(classDiff)) {
+            writeStringDiff("superClass", classDiff.getSupperClass());
+            writeStringDiff("access", classDiff.getAccess());
+            writeListDiff("interfaces", classDiff.getInterfaces());
+            writeListDiff("annotations", classDiff.getAnnotations());
+            writeFieldAnnotations(classDiff.getFieldAnnotations());
+            writeMethodsDiff(classDiff.getMethods());
+        }
+        endObject();
+    }
+
+    @Override
+    public void writeNestedJars(DiffModel<List<String>, List<JarDiffModel>> nestedJars) throws IOException {
+        closeClasses();
+        name("nestedJars");
+        beginObject();
+        field("name", nestedJars.getName());
+        field("added", nestedJars.getAdded());
+        field("deleted", nestedJars.getDeleted());
+        field("unchanged", nestedJars.getUnchanged());
+        if (Objects.nonNull(nestedJars.getUpdated())) {
+            name("updated");
+            beginArray();
+            for (JarDiffModel nestedJar : nestedJars.getUpdated()) {
+                write(nestedJar);
+            }
+            endArray();
+        }
+        endObject();
+    }
+
+    @Override
+    public void endJar() throws IOException {
+        closeClasses();
+        openClasses.pop();
+        endObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void closeClasses() throws IOException {
+        if (openClasses.peek()) {
+            endArray();
+            openClasses.pop();
+            openClasses.push(false);
+        }
+    }
+
+    private void writeStringDiff(String name, DiffModel<String, String> diff) throws IOException {
+        if (Objects.isNull(diff)) {
+            return;
+        }
+        name(name);
+        beginObject();
+        field("name", diff.getName());
+        field("added", diff.getAdded());
+        field("updated", diff.getUpdated());
+        field("deleted", diff.getDeleted());
+        field("unchanged", diff.getUnchanged());
+        endObject();
+    }
+
+    private void writeListDiff(String name, DiffModel<List<String>, List<String>> diff) throws IOException {
+        if (Objects.isNull(diff)) {
+            return;
+        }
+        name(name);
+        beginObject();
+        field("name", diff.getName());
+        field("added", diff.getAdded());
+        field("updated", diff.getUpdated());
+        field("deleted", diff.getDeleted());
+        field("unchanged", diff.getUnchanged());
+        endObject();
+    }
+
+    private void writeFieldAnnotations(List<DiffModel<List<String>, List<String>>> fieldAnnotations) throws IOException {
+        if (Objects.isNull(fieldAnnotations)) {
+            return;
+        }
+        name("fieldAnnotations");
+        beginArray();
+        for (DiffModel<List<String>, List<String>> fieldDiff : fieldAnnotations) {
+            beginObject();
+            field("name", fieldDiff.getName());
+            field("added", fieldDiff.getAdded());
+            field("deleted", fieldDiff.getDeleted());
+            field("unchanged", fieldDiff.getUnchanged());
+            endObject();
+        }
+        endArray();
+    }
+
+    private void writeMethodsDiff(DiffModel<List<String>, List<DiffModel<MethodModel, MethodModel>>> diff) throws IOException {
+        if (Objects.isNull(diff)) {
+            return;
+        }
+        name("methods");
+        beginObject();
+        field("name", diff.getName());
+        field("added", diff.getAdded());
+        field("deleted", diff.getDeleted());
+        field("unchanged", diff.getUnchanged());
+        if (Objects.nonNull(diff.getUpdated())) {
+            name("updated");
+            beginArray();
+            for (DiffModel<MethodModel, MethodModel> methodDiff : diff.getUpdated()) {
+                beginObject();
+                field("name", methodDiff.getName());
+                writeMethod("added", methodDiff.getAdded());
+                writeMethod("updated", methodDiff.getUpdated());
+                writeMethod("deleted", methodDiff.getDeleted());
+                writeMethod("unchanged", methodDiff.getUnchanged());
+                endObject();
+            }
+            endArray();
+        }
+        endObject();
+    }
+
+    private void writeMethod(String name, MethodModel method) throws IOException {
+        if (Objects.isNull(method)) {
+            return;
+        }
+        name(name);
+        beginObject();
+        field("methodName", method.getMethodName());
+        field("access", method.getAccess());
+        field("returnType", method.getReturnType());
+        field("argumentTypes", method.getArgumentTypes());
+        field("exceptions", method.getExceptions());
+        field("annotations", method.getAnnotations());
+        if (method.isImplementationChanged()) {
+            name("implementationChanged");
+            value(true);
+        }
+        endObject();
+    }
+
+    private void field(String name, String value) throws IOException {
+        if (Objects.nonNull(value)) {
+            name(name);
+            value(value);
+        }
+    }
+
+    private void field(String name, List<String> values) throws IOException {
+        if (Objects.nonNull(values)) {
+            name(name);
+            beginArray();
+            for (String value : values) {
+                value(value);
+            }
+            endArray();
+        }
+    }
+
+    private void beginObject() throws IOException {
+        separate();
+        writer.write('{');
+        scopes.push(true);
+    }
+
+    private void endObject() throws IOException {
+        scopes.pop();
+        writer.write('}');
+    }
+
+    private void beginArray() throws IOException {
+        separate();
+        writer.write('[');
+        scopes.push(true);
+    }
+
+    private void endArray() throws IOException {
+        scopes.pop();
+        writer.write(']');
+    }
+
+    private void name(String name) throws IOException {
+        separate();
+        string(name);
+        writer.write(':');
+        afterName = true;
+    }
+
+    private void value(String value) throws IOException {
+        separate();
+        if (Objects.isNull(value)) {
+            writer.write("null");
+        } else {
+            string(value);
+        }
+    }
+
+    private void value(boolean value) throws IOException {
+        separate();
+        writer.write(String.valueOf(value));
+    }
+
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (!scopes.isEmpty()) {
+            if (!scopes.pop()) {
+                writer.write(',');
+            }
+            scopes.push(false);
+        }
+    }
+
+    private void string(String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+}
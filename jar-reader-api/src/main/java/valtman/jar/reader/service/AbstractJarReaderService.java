@@ -0,0 +1,598 @@
+package valtman.jar.reader.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.objectweb.asm.ClassReader;
+import valtman.jar.reader.metrics.ClassCompareEvent;
+import valtman.jar.reader.metrics.DiffCompletedEvent;
+import valtman.jar.reader.metrics.DiffMetrics;
+import valtman.jar.reader.metrics.DiffMetricsListener;
+import valtman.jar.reader.metrics.JarLoadEvent;
+import valtman.jar.reader.metrics.MeteredClassEntry;
+import valtman.jar.reader.model.ClassDataModel;
+import valtman.jar.reader.model.ClassModel;
+import valtman.jar.reader.model.MethodModel;
+import valtman.jar.reader.model.diff.ClassDiffEvent;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.model.signature.ColumnarJarSignature;
+import valtman.jar.reader.model.signature.HierarchyIndex;
+import valtman.jar.reader.model.signature.JarSignature;
+import valtman.jar.reader.source.ClassEntry;
+import valtman.jar.reader.source.ClassSource;
+import valtman.jar.reader.source.ReaderBackend;
+import valtman.jar.reader.source.ThrottledClassEntry;
+import valtman.jar.reader.util.ColumnarDiffUtils;
+import valtman.jar.reader.util.DiffAccumulator;
+import valtman.jar.reader.util.DiffModelUtils;
+import valtman.jar.reader.util.ExecutorUtils;
+import valtman.jar.reader.util.ReaderUtils;
+import valtman.jar.reader.util.SignatureUtils;
+import valtman.jar.reader.util.SymbolTable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads both jars through {@link ClassSource}s and leaves the comparison of a single class to the engine.
+ */
+public abstract class AbstractJarReaderService implements JarReaderService {
+
+    private static final JarSignature EMPTY_JAR = JarSignature.builder()
+            .classes(Map.of())
+            .build();
+
+    @Getter(AccessLevel.PROTECTED)
+    private final ReaderBackend readerBackend;
+    @Getter
+    private final PipelineConfig pipelineConfig;
+    private final Semaphore inflatePermits;
+    private final List<DiffMetricsListener> metricsListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Delivers published diff events. The producers block in the compute pool while a subscriber lags behind,
+     * so delivery must not depend on a thread of that pool.
+     */
+    private final Executor deliveryExecutor = ExecutorUtils.newIoExecutor();
+
+    protected AbstractJarReaderService(ReaderBackend readerBackend) {
+        this(readerBackend, PipelineConfig.defaultConfig());
+    }
+
+    protected AbstractJarReaderService(ReaderBackend readerBackend, PipelineConfig pipelineConfig) {
+        this.readerBackend = readerBackend;
+        this.pipelineConfig = pipelineConfig;
+        this.inflatePermits = pipelineConfig.getInflateConcurrency() > PipelineConfig.UNLIMITED
+                ? new Semaphore(pipelineConfig.getInflateConcurrency())
+                : null;
+    }
+
+    protected abstract JarDiffModel compareClass(String name, ClassEntry firstEntry, ClassEntry secondEntry);
+
+    protected abstract JarDiffModel compareClass(String name, ClassSignature firstClass, ClassSignature secondClass);
+
+    public List<ClassModel> readJar(File file) {
+        JarSignature jarSignature = readSignatures(file);
+        HierarchyIndex hierarchy = HierarchyIndex.of(jarSignature);
+        return jarSignature.getClasses()
+                .values()
+                .stream()
+                .map(classSignature -> ClassModel.builder()
+                        .className(classSignature.getName())
+                        .classDataModel(ClassDataModel.builder()
+                                .hierarchy(hierarchy.getAllSupertypes(classSignature.getName()))
+                                .methods(classSignature.getMethods()
+                                        .values()
+                                        .stream()
+                                        .map(method -> MethodModel.builder()
+                                                .methodName(method.getName())
+                                                .returnType(method.getDesc())
+                                                .build())
+                                        .collect(Collectors.toUnmodifiableList())
+                                )
+                                .build())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    public JarSignature readSignatures(File file) {
+        return readSignatures(file, EMPTY_JAR);
+    }
+
+    /**
+     * Reads the signatures of the jar, reusing the signatures of the previous version for classes
+     * with the same CRC-32 and size, so unchanged classes are neither inflated nor parsed and both versions share them.
+     */
+    public JarSignature readSignatures(File file, JarSignature previousJar) {
+        return readSignatures(file, previousJar, new DiffJob());
+    }
+
+    /**
+     * Reads the signatures of the jar as a part of the job, the reading stops once the job is cancelled.
+     */
+    protected JarSignature readSignatures(File file, DiffJob job) {
+        return readSignatures(file, EMPTY_JAR, job);
+    }
+
+    private JarSignature readSignatures(File file, JarSignature previousJar, DiffJob job) {
+        boolean methodBodies = pipelineConfig.isCompareMethodBodies();
+        //signatures read in the other parse mode lack or carry body hashes, so they can't be reused
+        Map<String, ClassSignature> previousClasses = previousJar.isMethodBodies() == methodBodies
+                ? previousJar.getClasses()
+                : Map.of();
+        DiffMetrics metrics = job.getMetrics();
+        try (ClassSource source = load(() -> open(file), metrics)) {
+            return JarSignature.builder()
+                    .name(source.getName())
+                    .methodBodies(methodBodies)
+                    .classes(compute(() -> source.entries()
+                            .parallel()
+                            .map(entry -> prepare(entry, metrics))
+                            .collect(Collectors.toUnmodifiableMap(ClassEntry::getName, entry -> {
+                                job.checkCancelled();
+                                ClassSignature previousClass = previousClasses.get(entry.getName());
+                                if (Objects.nonNull(previousClass) && previousClass.hasSameContent(entry)) {
+                                    metrics.add(DiffMetrics.Counter.CLASSES_UNCHANGED, 1);
+                                    return previousClass;
+                                }
+                                return readSignature(entry, methodBodies, metrics);
+                            }, (firstClass, duplicateClass) -> firstClass))))
+                    .build();
+        }
+    }
+
+    private static ClassSignature readSignature(ClassEntry entry, boolean methodBodies, DiffMetrics metrics) {
+        ClassReader classReader = entry.getClassReader();
+        long start = System.nanoTime();
+        ClassSignature classSignature = SignatureUtils.readSignature(classReader, entry.getCrc(), entry.getSize(), methodBodies);
+        metrics.record(DiffMetrics.Stage.PARSE, System.nanoTime() - start);
+        metrics.add(DiffMetrics.Counter.CLASSES_PARSED, 1);
+        return classSignature;
+    }
+
+    /**
+     * Compares every jar with the next one, the result has a diff per adjacent pair of the ordered jars.
+     * Every jar is parsed once into columnar signatures sharing one symbol table, and only two versions are held at a time.
+     */
+    public List<JarDiffModel> getTimeline(List<File> jars) {
+        List<JarDiffModel> timeline = new ArrayList<>(Math.max(0, jars.size() - 1));
+        SymbolTable symbolTable = new SymbolTable();
+        ColumnarJarSignature previousJar = null;
+        for (File jar : jars) {
+            ColumnarJarSignature currentJar = readColumnarSignatures(jar, symbolTable, previousJar, new DiffJob());
+            if (Objects.nonNull(previousJar)) {
+                timeline.add(getDiff(previousJar, currentJar));
+            }
+            previousJar = currentJar;
+        }
+        return timeline;
+    }
+
+    /**
+     * Reads the signatures of the jar and indexes the supertypes and subtypes of its classes.
+     */
+    public HierarchyIndex readHierarchy(File file) {
+        return HierarchyIndex.of(readSignatures(file));
+    }
+
+    /**
+     * Reads the columnar signatures of the jar, jars compared with each other share the symbol table,
+     * which is released together with their signatures. Every class is added to the columns once it is parsed,
+     * so the signatures of the whole jar never exist as objects.
+     */
+    public ColumnarJarSignature readColumnarSignatures(File file, SymbolTable symbolTable) {
+        return readColumnarSignatures(file, symbolTable, null, new DiffJob());
+    }
+
+    /**
+     * Reads the columnar signatures, copying the classes with the same CRC-32 and size from the previous version,
+     * which has to share the symbol table.
+     */
+    private ColumnarJarSignature readColumnarSignatures(File file, SymbolTable symbolTable, ColumnarJarSignature previousJar,
+                                                        DiffJob job) {
+        boolean methodBodies = pipelineConfig.isCompareMethodBodies();
+        DiffMetrics metrics = job.getMetrics();
+        try (ClassSource source = load(() -> open(file), metrics)) {
+            ColumnarJarSignature.Builder builder = ColumnarJarSignature.builder(source.getName(), symbolTable);
+            compute(() -> {
+                source.entries()
+                        .parallel()
+                        .map(entry -> prepare(entry, metrics))
+                        .forEach(entry -> {
+                            job.checkCancelled();
+                            int previousClass = Objects.isNull(previousJar) ? ColumnarJarSignature.NO_SYMBOL
+                                    : previousJar.findClass(entry.getName());
+                            if (previousClass >= 0 && previousJar.hasSameContent(previousClass, entry)) {
+                                metrics.add(DiffMetrics.Counter.CLASSES_UNCHANGED, 1);
+                                builder.add(entry.getName(), previousJar.getClassSignature(previousClass));
+                            } else {
+                                builder.add(entry.getName(), readSignature(entry, methodBodies, metrics));
+                            }
+                        });
+                return null;
+            });
+            return builder.build();
+        }
+    }
+
+    /**
+     * Compares jars straight on their columnar signatures, the result is the same for every engine.
+     */
+    public JarDiffModel getDiff(ColumnarJarSignature firstJar, ColumnarJarSignature secondJar) {
+        DiffJob job = newJob();
+        try {
+            JarDiffModel diff = compute(() -> ColumnarDiffUtils.getDiff(firstJar, secondJar));
+            job.complete(diff);
+            return diff;
+        } catch (RuntimeException e) {
+            job.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public JarDiffModel getDiff(JarSignature firstJar, JarSignature secondJar) {
+        DiffJob job = newJob();
+        try {
+            JarDiffModel diff = getDiff(firstJar, secondJar, job);
+            job.complete(diff);
+            return diff;
+        } catch (RuntimeException e) {
+            job.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    protected JarDiffModel getDiff(JarSignature firstJar, JarSignature secondJar, DiffJob job) {
+        return compute(() -> compareClasses(firstJar.getClasses(), secondJar.getClasses(),
+                (firstClass, secondClass) -> firstClass.hasSameContent(secondClass) || firstClass.hasSameSemantics(secondClass),
+                this::compareClass, job));
+    }
+
+    @Override
+    public JarDiffModel getDiff(File firstJar, File secondJar) {
+        return getDiffAsync(firstJar, secondJar).join();
+    }
+
+    /**
+     * Starts the diff and returns at once. Cancelling the job stops the parsing and comparison of the remaining classes.
+     */
+    @Override
+    public DiffJob getDiffAsync(File firstJar, File secondJar) {
+        return getDiffAsync(() -> open(firstJar), () -> open(secondJar));
+    }
+
+    /**
+     * Publishes the diff class by class as the classes are compared. Every subscription runs its own comparison,
+     * a subscriber which does not keep up holds the comparison back once its buffer is full, and a cancelled
+     * subscription stops comparing the remaining classes. The nested jars are compared once all classes are published
+     * and sent as a single last event. Events are delivered on a dedicated executor, and the stage
+     * metrics of every subscription are reported to the listeners like those of any other diff.
+     */
+    public Flow.Publisher<ClassDiffEvent> publishDiff(File firstJar, File secondJar) {
+        return subscriber -> {
+            SubmissionPublisher<ClassDiffEvent> publisher = new SubmissionPublisher<>(deliveryExecutor, Flow.defaultBufferSize());
+            publisher.subscribe(subscriber);
+            DiffJob job = newJob();
+            CompletableFuture.runAsync(() -> {
+                try (ClassSource firstSource = load(() -> open(firstJar), job.getMetrics());
+                     ClassSource secondSource = load(() -> open(secondJar), job.getMetrics())) {
+                    compute(() -> {
+                        publishClasses(firstSource, secondSource, publisher, job);
+                        return null;
+                    });
+                    //the metrics are reported before the subscriber learns the diff is complete
+                    job.complete(null);
+                    publisher.close();
+                } catch (Throwable e) {
+                    //subscribers wait for the publisher to close, even when the comparison fails with an error
+                    job.completeExceptionally(e);
+                    publisher.closeExceptionally(e);
+                    if (e instanceof Error) {
+                        throw (Error) e;
+                    }
+                }
+            }, pipelineConfig.getIoExecutor());
+        };
+    }
+
+    /**
+     * Compares two classpaths of jars and directories, a class is taken from the first classpath entry which contains it.
+     */
+    public JarDiffModel getDiff(List<File> firstClasspath, List<File> secondClasspath) {
+        return getDiffAsync(() -> ReaderUtils.openClasspath(firstClasspath, readerBackend, pipelineConfig.getComputePool()),
+                () -> ReaderUtils.openClasspath(secondClasspath, readerBackend, pipelineConfig.getComputePool())).join();
+    }
+
+    private DiffJob getDiffAsync(Supplier<ClassSource> firstSourceSupplier, Supplier<ClassSource> secondSourceSupplier) {
+        DiffJob job = newJob();
+        Executor ioExecutor = pipelineConfig.getIoExecutor();
+        CompletableFuture<ClassSource> firstJarSource = CompletableFuture.supplyAsync(
+                () -> load(firstSourceSupplier, job.getMetrics()), ioExecutor);
+        CompletableFuture<ClassSource> secondJarSource = CompletableFuture.supplyAsync(
+                () -> load(secondSourceSupplier, job.getMetrics()), ioExecutor);
+        return job.completeWith(CompletableFuture.allOf(firstJarSource, secondJarSource)
+                .whenComplete((v, throwable) -> {
+                    if (Objects.nonNull(throwable)) {
+                        closeOpened(firstJarSource, secondJarSource);
+                    }
+                })
+                .thenApplyAsync(v -> {
+                    try (ClassSource firstSource = firstJarSource.join();
+                         ClassSource secondSource = secondJarSource.join()) {
+                        job.checkCancelled();
+                        return compareSources(null, firstSource, secondSource, job);
+                    }
+                }, pipelineConfig.getComputePool()));
+    }
+
+    @Override
+    public void addMetricsListener(DiffMetricsListener listener) {
+        metricsListeners.add(listener);
+    }
+
+    /**
+     * Creates a job which reports its metrics to the listeners and as a flight recorder event once completed.
+     */
+    protected DiffJob newJob() {
+        DiffJob job = new DiffJob();
+        DiffCompletedEvent event = new DiffCompletedEvent();
+        event.begin();
+        job.whenComplete((diff, throwable) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.failed = Objects.nonNull(throwable);
+                event.setMetrics(job.getMetrics());
+                event.commit();
+            }
+            metricsListeners.forEach(listener -> listener.onDiffCompleted(job.getMetrics()));
+        });
+        return job;
+    }
+
+    /**
+     * Runs the task in the compute pool, so the parallel streams it starts are bounded by the pool parallelism
+     * instead of running on the common pool.
+     */
+    protected <R> R compute(Supplier<R> task) {
+        ForkJoinPool computePool = pipelineConfig.getComputePool();
+        if (ForkJoinTask.getPool() == computePool) {
+            return task.get();
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, computePool).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private JarDiffModel compareSources(String name, ClassSource firstSource, ClassSource secondSource, DiffJob job) {
+        Map<String, ClassEntry> firstEntries = byName(firstSource.entries()
+                .map(entry -> prepare(entry, job.getMetrics())));
+        Map<String, ClassEntry> secondEntries = byName(secondSource.entries()
+                .map(entry -> prepare(entry, job.getMetrics())));
+        JarDiffModel classDiff = compareClasses(firstEntries, secondEntries, ClassEntry::hasSameContent, this::compareClass, job);
+        return JarDiffModel.jarDiffBuilder()
+                .name(name)
+                .added(classDiff.getAdded())
+                .updated(classDiff.getUpdated())
+                .deleted(classDiff.getDeleted())
+                .unchanged(classDiff.getUnchanged())
+                .nestedJars(compareNestedArchives(firstSource, secondSource, job))
+                .build();
+    }
+
+    private void publishClasses(ClassSource firstSource, ClassSource secondSource, SubmissionPublisher<ClassDiffEvent> publisher,
+                                DiffJob job) {
+        DiffMetrics metrics = job.getMetrics();
+        Map<String, ClassEntry> firstEntries = byName(firstSource.entries()
+                .map(entry -> prepare(entry, metrics)));
+        Map<String, ClassEntry> secondEntries = byName(secondSource.entries()
+                .map(entry -> prepare(entry, metrics)));
+        Set<String> classes = new HashSet<>(firstEntries.keySet());
+        classes.addAll(secondEntries.keySet());
+        job.addClasses(classes.size());
+
+        classes.parallelStream()
+                .filter(classPath -> publisher.hasSubscribers())
+                .map(classPath -> {
+                    ClassEntry firstEntry = firstEntries.get(classPath);
+                    ClassEntry secondEntry = secondEntries.get(classPath);
+                    if (Objects.isNull(firstEntry)) {
+                        return ClassDiffEvent.added(classPath);
+                    }
+                    if (Objects.isNull(secondEntry)) {
+                        return ClassDiffEvent.deleted(classPath);
+                    }
+                    if (firstEntry.hasSameContent(secondEntry)) {
+                        metrics.add(DiffMetrics.Counter.CLASSES_UNCHANGED, 1);
+                        return ClassDiffEvent.unchanged(classPath);
+                    }
+                    return ClassDiffEvent.of(classPath, compareClass(classPath, firstEntry, secondEntry, this::compareClass, metrics));
+                })
+                .forEach(event -> {
+                    publisher.submit(event);
+                    job.classProcessed();
+                });
+        if (publisher.hasSubscribers()) {
+            DiffModel<List<String>, List<JarDiffModel>> nestedJars = compareNestedArchives(firstSource, secondSource, job);
+            if (Objects.nonNull(nestedJars)) {
+                publisher.submit(ClassDiffEvent.nestedJars(nestedJars));
+            }
+        }
+    }
+
+    private DiffModel<List<String>, List<JarDiffModel>> compareNestedArchives(ClassSource firstSource, ClassSource secondSource, DiffJob job) {
+        Map<String, ClassEntry> firstArchives = byName(firstSource.nestedArchives());
+        Map<String, ClassEntry> secondArchives = byName(secondSource.nestedArchives());
+        if (firstArchives.isEmpty() && secondArchives.isEmpty()) {
+            return null;
+        }
+        Set<String> archives = new HashSet<>(firstArchives.keySet());
+        archives.addAll(secondArchives.keySet());
+
+        return archives.parallelStream()
+                .collect(DiffAccumulator.collector((DiffAccumulator<String, JarDiffModel> diff, String archivePath) -> {
+                    job.checkCancelled();
+                    ClassEntry firstArchive = firstArchives.get(archivePath);
+                    ClassEntry secondArchive = secondArchives.get(archivePath);
+                    if (Objects.isNull(firstArchive)) {
+                        diff.added(archivePath);
+                    } else if (Objects.isNull(secondArchive)) {
+                        diff.deleted(archivePath);
+                    } else if (firstArchive.hasSameContent(secondArchive)) {
+                        diff.unchanged(archivePath);
+                    } else {
+                        JarDiffModel archiveDiff = compareNestedArchive(archivePath, firstArchive, secondArchive, job);
+                        if (DiffModelUtils.isChanged(archiveDiff)) {
+                            diff.updated(archiveDiff);
+                        } else {
+                            diff.unchanged(archivePath);
+                        }
+                    }
+                }, diff -> diff.toDiffModel(null)));
+    }
+
+    private JarDiffModel compareNestedArchive(String name, ClassEntry firstArchive, ClassEntry secondArchive, DiffJob job) {
+        try (ClassSource firstSource = ReaderUtils.openNested(firstArchive);
+             ClassSource secondSource = ReaderUtils.openNested(secondArchive)) {
+            return compareSources(name, firstSource, secondSource, job);
+        }
+    }
+
+    private <T> JarDiffModel compareClasses(Map<String, T> firstClasses, Map<String, T> secondClasses,
+                                            BiPredicate<T, T> hasSameContent, ClassComparator<T> classComparator, DiffJob job) {
+        Set<String> classes = new HashSet<>(firstClasses.keySet());
+        classes.addAll(secondClasses.keySet());
+        job.addClasses(classes.size());
+        DiffMetrics metrics = job.getMetrics();
+
+        return classes.parallelStream()
+                .collect(Collector.of(DiffAccumulator::new, (DiffAccumulator<String, ClassDiffModel> diff, String classPath) -> {
+                    job.checkCancelled();
+                    T firstClass = firstClasses.get(classPath);
+                    T secondClass = secondClasses.get(classPath);
+                    if (Objects.isNull(firstClass)) {
+                        diff.added(classPath);
+                    } else if (Objects.isNull(secondClass)) {
+                        diff.deleted(classPath);
+                    } else if (hasSameContent.test(firstClass, secondClass)) {
+                        //classes with the same CRC-32 and size are unchanged, there is no need to inflate and parse them
+                        diff.unchanged(classPath);
+                        metrics.add(DiffMetrics.Counter.CLASSES_UNCHANGED, 1);
+                    } else {
+                        diff.addAll(compareClass(classPath, firstClass, secondClass, classComparator, metrics));
+                    }
+                    job.classProcessed();
+                }, (first, second) -> metrics.time(DiffMetrics.Stage.MERGE, () -> first.combine(second)),
+                        diff -> metrics.time(DiffMetrics.Stage.MERGE, () -> DiffAccumulator.toJarDiffModel(diff))));
+    }
+
+    private static <T> JarDiffModel compareClass(String classPath, T firstClass, T secondClass,
+                                                 ClassComparator<T> classComparator, DiffMetrics metrics) {
+        ClassCompareEvent event = new ClassCompareEvent();
+        event.begin();
+        long start = System.nanoTime();
+        JarDiffModel classDiff = classComparator.compare(classPath, firstClass, secondClass);
+        metrics.record(DiffMetrics.Stage.COMPARE, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.className = classPath;
+            event.commit();
+        }
+        metrics.add(DiffMetrics.Counter.CLASSES_COMPARED, 1);
+        metrics.add(DiffMetrics.Counter.METHODS_COMPARED, countMethods(classDiff));
+        return classDiff;
+    }
+
+    private static long countMethods(JarDiffModel classDiff) {
+        if (Objects.isNull(classDiff.getUpdated())) {
+            return 0;
+        }
+        return classDiff.getUpdated()
+                .stream()
+                .map(ClassDiffModel::getMethods)
+                .filter(Objects::nonNull)
+                .mapToLong(methods -> size(methods.getAdded()) + size(methods.getDeleted())
+                        + size(methods.getUnchanged()) + size(methods.getUpdated()))
+                .sum();
+    }
+
+    private static int size(List<?> values) {
+        return Objects.isNull(values) ? 0 : values.size();
+    }
+
+    /**
+     * Opens the jar or directory, a directory is walked on the compute pool rather than on the common pool.
+     */
+    private ClassSource open(File file) {
+        return ReaderUtils.open(file, readerBackend, pipelineConfig.getComputePool());
+    }
+
+    private static ClassSource load(Supplier<ClassSource> sourceSupplier, DiffMetrics metrics) {
+        JarLoadEvent event = new JarLoadEvent();
+        event.begin();
+        ClassSource source = metrics.time(DiffMetrics.Stage.LOAD, sourceSupplier);
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = source.getName();
+            event.commit();
+        }
+        return source;
+    }
+
+    /**
+     * Maps the entries by name, the first of entries with a duplicate name wins.
+     */
+    private static Map<String, ClassEntry> byName(Stream<ClassEntry> entries) {
+        return entries.collect(Collectors.toMap(ClassEntry::getName, Function.identity(),
+                (firstEntry, duplicateEntry) -> firstEntry));
+    }
+
+    private ClassEntry prepare(ClassEntry entry, DiffMetrics metrics) {
+        return throttle(new MeteredClassEntry(entry, metrics));
+    }
+
+    private ClassEntry throttle(ClassEntry entry) {
+        return Objects.isNull(inflatePermits) ? entry : new ThrottledClassEntry(entry, inflatePermits);
+    }
+
+    @SafeVarargs
+    private static void closeOpened(CompletableFuture<ClassSource>... sources) {
+        Stream.of(sources)
+                .filter(source -> source.isDone() && !source.isCompletedExceptionally())
+                .map(CompletableFuture::join)
+                .forEach(ClassSource::close);
+    }
+
+    @FunctionalInterface
+    private interface ClassComparator<T> {
+        JarDiffModel compare(String name, T firstClass, T secondClass);
+    }
+}
@@ -0,0 +1,125 @@
+package valtman.jar.reader.service;
+
+import valtman.jar.reader.exception.UnableToReadJarException;
+import valtman.jar.reader.model.JarPair;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.diff.JarPairDiffModel;
+import valtman.jar.reader.util.ExecutorUtils;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Diffs many jar pairs in one process. The pairs run as asynchronous jobs of the wrapped service, which is created
+ * with the I/O executor of the configuration and opens the jars there, while the comparison runs on its compute pool,
+ * so a batch uses no more CPU than a single diff. No thread waits for a pair: the next pair is started when one
+ * finishes, which bounds the number of pairs in flight and the number of jars held in memory at once.
+ */
+public class BatchJarReaderService {
+
+    private final JarReaderService jarReaderService;
+    private final Executor ioExecutor;
+    private final int maxConcurrentPairs;
+
+    /**
+     * Creates the service with the default compute pool and an I/O executor of virtual threads where available.
+     */
+    public BatchJarReaderService(Function<PipelineConfig, ? extends JarReaderService> serviceFactory, int maxConcurrentPairs) {
+        this(serviceFactory, PipelineConfig.defaultConfig()
+                .toBuilder()
+                .ioExecutor(ExecutorUtils.newIoExecutor())
+                .build(), maxConcurrentPairs);
+    }
+
+    /**
+     * Creates the wrapped service with the given configuration, whose I/O executor also starts the next pairs.
+     */
+    public BatchJarReaderService(Function<PipelineConfig, ? extends JarReaderService> serviceFactory,
+                                 PipelineConfig pipelineConfig, int maxConcurrentPairs) {
+        this.jarReaderService = serviceFactory.apply(pipelineConfig);
+        this.ioExecutor = pipelineConfig.getIoExecutor();
+        this.maxConcurrentPairs = maxConcurrentPairs;
+    }
+
+    /**
+     * Returns the results in the order the pairs finish. A failed pair is reported in its result
+     * and does not stop the rest of the batch, while errors such as {@link OutOfMemoryError} are thrown to the reader
+     * and no further pairs are started.
+     */
+    public Stream<JarPairDiffModel> getDiffs(List<JarPair> pairs) {
+        BlockingQueue<CompletableFuture<JarPairDiffModel>> results = new LinkedBlockingQueue<>();
+        Iterator<JarPair> pendingPairs = pairs.iterator();
+        for (int i = 0; i < maxConcurrentPairs; i++) {
+            startNext(pendingPairs, results);
+        }
+        return Stream.generate(() -> takeResult(results))
+                .limit(pairs.size());
+    }
+
+    private void startNext(Iterator<JarPair> pendingPairs, BlockingQueue<CompletableFuture<JarPairDiffModel>> results) {
+        JarPair pair;
+        synchronized (pendingPairs) {
+            if (!pendingPairs.hasNext()) {
+                return;
+            }
+            pair = pendingPairs.next();
+        }
+        CompletableFuture<JarPairDiffModel> result = getDiff(pair);
+        //started asynchronously, so pairs failing at once do not start each other on one stack
+        result.whenCompleteAsync((diff, error) -> {
+            results.add(result);
+            if (Objects.isNull(error)) {
+                startNext(pendingPairs, results);
+            }
+        }, ioExecutor);
+    }
+
+    private CompletableFuture<JarPairDiffModel> getDiff(JarPair pair) {
+        CompletableFuture<JarDiffModel> diff;
+        try {
+            diff = jarReaderService.getDiffAsync(pair.getFirstJar(), pair.getSecondJar());
+        } catch (RuntimeException e) {
+            diff = CompletableFuture.failedFuture(e);
+        }
+        return diff.handle((result, error) -> {
+            Throwable cause = error instanceof CompletionException && Objects.nonNull(error.getCause())
+                    ? error.getCause()
+                    : error;
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            return JarPairDiffModel.builder()
+                    .pair(pair)
+                    .diff(result)
+                    .error(cause)
+                    .build();
+        });
+    }
+
+    private static JarPairDiffModel takeResult(BlockingQueue<CompletableFuture<JarPairDiffModel>> results) {
+        CompletableFuture<JarPairDiffModel> result;
+        try {
+            result = results.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnableToReadJarException("Interrupted while waiting for jar diffs", e);
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            //only errors escape a pair, failed diffs are reported in their results
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
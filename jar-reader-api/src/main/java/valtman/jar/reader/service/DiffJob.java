@@ -0,0 +1,72 @@
+package valtman.jar.reader.service;
+
+import lombok.Getter;
+import valtman.jar.reader.metrics.DiffMetrics;
+import valtman.jar.reader.model.diff.JarDiffModel;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pending result of an asynchronous diff. The workers check the job between classes, so cancelling it stops
+ * the parsing and comparison still in progress, and they count the classes they have processed.
+ */
+public class DiffJob extends CompletableFuture<JarDiffModel> {
+    private final AtomicLong totalClasses = new AtomicLong();
+    private final LongAdder processedClasses = new LongAdder();
+    @Getter
+    private final DiffMetrics metrics = new DiffMetrics();
+
+    /**
+     * Returns the number of classes known so far, it grows while nested jars are opened.
+     */
+    public long getTotalClasses() {
+        return totalClasses.get();
+    }
+
+    public long getProcessedClasses() {
+        return processedClasses.sum();
+    }
+
+    /**
+     * Completes the job with the outcome of the stage, unwrapping the {@link CompletionException} of a failed stage.
+     */
+    public DiffJob completeWith(CompletableFuture<JarDiffModel> stage) {
+        stage.whenComplete((diff, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                complete(diff);
+            } else if (throwable instanceof CompletionException && Objects.nonNull(throwable.getCause())) {
+                completeExceptionally(throwable.getCause());
+            } else {
+                completeExceptionally(throwable);
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        return new CompletableFuture<>();
+    }
+
+    void addClasses(int count) {
+        totalClasses.addAndGet(count);
+    }
+
+    void classProcessed() {
+        processedClasses.increment();
+    }
+
+    /**
+     * Stops the calling worker once the job is completed, cancelled or superseded by a failure elsewhere.
+     */
+    void checkCancelled() {
+        if (isDone()) {
+            throw new CancellationException("Diff job is already completed");
+        }
+    }
+}
@@ -1,10 +1,27 @@
 package valtman.jar.reader.service;
 
+import valtman.jar.reader.metrics.DiffMetricsListener;
 import valtman.jar.reader.model.diff.JarDiffModel;
 
 import java.io.File;
+import java.util.concurrent.CompletableFuture;
 
 public interface JarReaderService {
 
     JarDiffModel getDiff(File firstFile, File secondFile);
+
+    /**
+     * Starts the diff and returns at once. The default implementation runs {@link #getDiff(File, File)} as a whole,
+     * so cancelling the job only discards its result.
+     */
+    default DiffJob getDiffAsync(File firstFile, File secondFile) {
+        return new DiffJob().completeWith(CompletableFuture.supplyAsync(() -> getDiff(firstFile, secondFile)));
+    }
+
+    /**
+     * Registers a listener notified with the stage metrics of every following diff.
+     * The default implementation collects no metrics, so the listener is never notified.
+     */
+    default void addMetricsListener(DiffMetricsListener listener) {
+    }
 }
@@ -0,0 +1,41 @@
+package valtman.jar.reader.service;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Executors of the diff pipeline stages. Jars are opened on the I/O executor, classes are parsed and compared
+ * by the parallel streams of the compute pool, and the number of entries inflated at once is bounded separately
+ * so that a wide compute pool does not hold every inflated class of both jars in memory.
+ * Several services may share the same pools to bound the CPU used by concurrent diffs.
+ * With {@code compareMethodBodies} the parse stage also fingerprints method bodies, which costs reading
+ * the code of every changed class but reports methods whose implementation changed under the same signature.
+ */
+@Getter
+@Builder(toBuilder = true)
+@RequiredArgsConstructor
+public class PipelineConfig {
+    public static final int UNLIMITED = 0;
+
+    private final Executor ioExecutor;
+    private final ForkJoinPool computePool;
+    private final int inflateConcurrency;
+    private final boolean compareMethodBodies;
+
+    public static PipelineConfig defaultConfig() {
+        return withParallelism(Runtime.getRuntime().availableProcessors());
+    }
+
+    public static PipelineConfig withParallelism(int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        return PipelineConfig.builder()
+                .ioExecutor(pool)
+                .computePool(pool)
+                .inflateConcurrency(UNLIMITED)
+                .build();
+    }
+}
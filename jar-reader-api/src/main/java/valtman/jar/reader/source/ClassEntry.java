@@ -0,0 +1,38 @@
+package valtman.jar.reader.source;
+
+import org.objectweb.asm.ClassReader;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Handle of a single class file. Metadata is available immediately, content is read only on request.
+ */
+public interface ClassEntry {
+
+    String getName();
+
+    long getCrc();
+
+    long getSize();
+
+    byte[] getBytes();
+
+    default ByteBuffer getBuffer() {
+        return ByteBuffer.wrap(getBytes());
+    }
+
+    /**
+     * Compares the CRC-32 and uncompressed size recorded for both entries without reading their content.
+     */
+    default boolean hasSameContent(ClassEntry other) {
+        return Objects.nonNull(other)
+                && getCrc() >= 0 && getSize() >= 0
+                && getCrc() == other.getCrc()
+                && getSize() == other.getSize();
+    }
+
+    default ClassReader getClassReader() {
+        return new ClassReader(getBytes());
+    }
+}
@@ -0,0 +1,33 @@
+package valtman.jar.reader.source;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Source of class entries which keeps the underlying archive open until it is closed.
+ */
+public interface ClassSource extends AutoCloseable {
+    List<String> NESTED_ARCHIVE_DIRECTORIES = List.of("BOOT-INF/lib/", "WEB-INF/lib/");
+    String ARCHIVE_SUFFIX = ".jar";
+
+    String getName();
+
+    Stream<ClassEntry> entries();
+
+    ClassEntry getEntry(String name);
+
+    /**
+     * Jars nested in the archive, such as the libraries of Spring Boot fat jars and web applications.
+     */
+    default Stream<ClassEntry> nestedArchives() {
+        return Stream.empty();
+    }
+
+    @Override
+    void close();
+
+    static boolean isNestedArchive(String name) {
+        return name.endsWith(ARCHIVE_SUFFIX)
+                && NESTED_ARCHIVE_DIRECTORIES.stream().anyMatch(name::startsWith);
+    }
+}
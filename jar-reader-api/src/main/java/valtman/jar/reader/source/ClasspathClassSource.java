@@ -0,0 +1,59 @@
+package valtman.jar.reader.source;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Several jars and directories seen as one source. As on a real classpath, a class is taken from the first
+ * source which contains it and the same class in later sources is shadowed.
+ */
+public class ClasspathClassSource implements ClassSource {
+
+    private final String name;
+    private final List<ClassSource> sources;
+    private final Map<String, ClassEntry> entries;
+    private final Map<String, ClassEntry> nestedArchives;
+
+    public ClasspathClassSource(String name, List<ClassSource> sources) {
+        this.name = name;
+        this.sources = sources;
+        this.entries = merge(sources, ClassSource::entries);
+        this.nestedArchives = merge(sources, ClassSource::nestedArchives);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Stream<ClassEntry> entries() {
+        return entries.values().stream();
+    }
+
+    @Override
+    public Stream<ClassEntry> nestedArchives() {
+        return nestedArchives.values().stream();
+    }
+
+    @Override
+    public ClassEntry getEntry(String name) {
+        return entries.get(name);
+    }
+
+    @Override
+    public void close() {
+        sources.forEach(ClassSource::close);
+    }
+
+    private static Map<String, ClassEntry> merge(List<ClassSource> sources, Function<ClassSource, Stream<ClassEntry>> entries) {
+        return sources.stream()
+                .flatMap(entries)
+                .collect(Collectors.toMap(ClassEntry::getName, Function.identity(),
+                        (firstEntry, shadowedEntry) -> firstEntry, LinkedHashMap::new));
+    }
+}
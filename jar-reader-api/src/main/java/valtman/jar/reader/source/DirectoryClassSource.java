@@ -0,0 +1,147 @@
+package valtman.jar.reader.source;
+
+import lombok.RequiredArgsConstructor;
+import valtman.jar.reader.exception.UnableToReadJarException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Class files of an exploded directory such as {@code target/classes}. The directory tree is walked in parallel
+ * on the given pool when the source is opened, the files themselves are read only on request.
+ * There is no CRC-32 for plain files, so every class with the same name is compared by content.
+ */
+public class DirectoryClassSource implements ClassSource {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final Path directory;
+    private final Map<String, DirectoryClassEntry> entries;
+
+    public DirectoryClassSource(File directory) {
+        this(directory, ForkJoinPool.commonPool());
+    }
+
+    public DirectoryClassSource(File directory, ForkJoinPool walkPool) {
+        this.directory = directory.toPath();
+        if (!Files.isDirectory(this.directory)) {
+            throw new UnableToReadJarException("Can't read directory " + directory.getName(),
+                    new IOException(directory + " is not a directory"));
+        }
+        try {
+            this.entries = walkPool.invoke(new WalkTask(this.directory))
+                    .stream()
+                    .map(DirectoryClassEntry::new)
+                    .collect(Collectors.toUnmodifiableMap(DirectoryClassEntry::getName, Function.identity()));
+        } catch (UncheckedIOException e) {
+            throw new UnableToReadJarException("Can't read directory " + directory.getName(), e.getCause());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return directory.getFileName().toString();
+    }
+
+    @Override
+    public Stream<ClassEntry> entries() {
+        return entries.values()
+                .stream()
+                .filter(entry -> entry.getName().endsWith(CLASS_SUFFIX))
+                .map(ClassEntry.class::cast);
+    }
+
+    @Override
+    public Stream<ClassEntry> nestedArchives() {
+        return entries.values()
+                .stream()
+                .filter(entry -> ClassSource.isNestedArchive(entry.getName()))
+                .map(ClassEntry.class::cast);
+    }
+
+    @Override
+    public ClassEntry getEntry(String name) {
+        return entries.get(name);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static List<Path> listFiles(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lists class files and nested jars, forking a subtask per subdirectory.
+     */
+    @RequiredArgsConstructor
+    private static class WalkTask extends RecursiveTask<List<Path>> {
+        private final Path directory;
+
+        @Override
+        protected List<Path> compute() {
+            List<WalkTask> subdirectories = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+            for (Path path : listFiles(directory)) {
+                if (Files.isDirectory(path)) {
+                    WalkTask subdirectory = new WalkTask(path);
+                    subdirectory.fork();
+                    subdirectories.add(subdirectory);
+                } else if (path.toString().endsWith(CLASS_SUFFIX) || path.toString().endsWith(ARCHIVE_SUFFIX)) {
+                    files.add(path);
+                }
+            }
+            subdirectories.forEach(subdirectory -> files.addAll(subdirectory.join()));
+            return files;
+        }
+    }
+
+    private class DirectoryClassEntry implements ClassEntry {
+        private final Path path;
+        private final String name;
+
+        private DirectoryClassEntry(Path path) {
+            this.path = path;
+            this.name = directory.relativize(path).toString().replace(File.separatorChar, '/');
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getCrc() {
+            return -1;
+        }
+
+        @Override
+        public long getSize() {
+            return -1;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            try {
+                return Files.readAllBytes(path);
+            } catch (IOException e) {
+                throw new UnableToReadJarException("Can't read " + name + " from directory " + DirectoryClassSource.this.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package valtman.jar.reader.source;
+
+import lombok.RequiredArgsConstructor;
+import valtman.jar.reader.exception.UnableToReadJarException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+public class JarFileClassSource implements ClassSource {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final File file;
+    private final JarFile jar;
+
+    public JarFileClassSource(File file) {
+        this.file = file;
+        try {
+            this.jar = new JarFile(file);
+        } catch (IOException e) {
+            throw new UnableToReadJarException("Can't read jar file " + file.getName(), e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return file.getName();
+    }
+
+    @Override
+    public Stream<ClassEntry> entries() {
+        return jar.stream()
+                .filter(entry -> entry.getName().endsWith(CLASS_SUFFIX))
+                .map(JarClassEntry::new);
+    }
+
+    @Override
+    public Stream<ClassEntry> nestedArchives() {
+        return jar.stream()
+                .filter(entry -> ClassSource.isNestedArchive(entry.getName()))
+                .map(JarClassEntry::new);
+    }
+
+    @Override
+    public ClassEntry getEntry(String name) {
+        JarEntry entry = jar.getJarEntry(name);
+        return Objects.isNull(entry) ? null : new JarClassEntry(entry);
+    }
+
+    @Override
+    public void close() {
+        try {
+            jar.close();
+        } catch (IOException e) {
+            throw new UnableToReadJarException("Can't close jar file " + file.getName(), e);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private class JarClassEntry implements ClassEntry {
+        private final JarEntry entry;
+
+        @Override
+        public String getName() {
+            return entry.getRealName();
+        }
+
+        @Override
+        public long getCrc() {
+            return entry.getCrc();
+        }
+
+        @Override
+        public long getSize() {
+            return entry.getSize();
+        }
+
+        @Override
+        public byte[] getBytes() {
+            try (InputStream inputStream = jar.getInputStream(entry)) {
+                return inputStream.readAllBytes();
+            } catch (IOException e) {
+                throw new UnableToReadJarException("Can't read " + entry.getName() + " from jar file " + file.getName(), e);
+            }
+        }
+    }
+}
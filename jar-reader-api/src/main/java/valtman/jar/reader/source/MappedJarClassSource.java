@@ -0,0 +1,281 @@
+package valtman.jar.reader.source;
+
+import lombok.RequiredArgsConstructor;
+import valtman.jar.reader.exception.UnableToReadJarException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import java.util.stream.Stream;
+
+/**
+ * Jar reader which maps the archive into memory and parses the zip central directory directly.
+ * Stored entries are exposed as slices of the mapping, deflated entries are inflated straight into
+ * a buffer of the uncompressed size recorded in the central directory.
+ */
+public class MappedJarClassSource implements ClassSource {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int ZIP64_MARKER = 0xFFFF;
+    private static final long ZIP64_MARKER_32 = 0xFFFFFFFFL;
+    private static final int ENCRYPTED_FLAG = 1;
+    private static final int MAX_DEFLATE_RATIO = 1032;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private final String name;
+    private final ByteBuffer buffer;
+    private final Map<String, MappedClassEntry> entries;
+
+    public MappedJarClassSource(File file) {
+        this(file.getName(), map(file));
+    }
+
+    public MappedJarClassSource(String name, ByteBuffer buffer) {
+        this.name = name;
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            this.entries = readCentralDirectory();
+        } catch (ZipException | IndexOutOfBoundsException e) {
+            throw new UnableToReadJarException("Can't read jar file " + name, e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Stream<ClassEntry> entries() {
+        return entries.values()
+                .stream()
+                .filter(entry -> entry.getName().endsWith(CLASS_SUFFIX))
+                .map(ClassEntry.class::cast);
+    }
+
+    /**
+     * Nested jars are stored uncompressed by Spring Boot, so they are exposed as slices of the outer mapping
+     * and can be read in place by another {@link MappedJarClassSource}.
+     */
+    @Override
+    public Stream<ClassEntry> nestedArchives() {
+        return entries.values()
+                .stream()
+                .filter(entry -> ClassSource.isNestedArchive(entry.getName()))
+                .map(ClassEntry.class::cast);
+    }
+
+    @Override
+    public ClassEntry getEntry(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * The mapping is released by the garbage collector, there is nothing to close explicitly.
+     */
+    @Override
+    public void close() {
+    }
+
+    private static ByteBuffer map(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new UnableToReadJarException("Jar file " + file.getName() + " is too large to be mapped",
+                        new ZipException("Archive size " + channel.size() + " exceeds mapping limit"));
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UnableToReadJarException("Can't read jar file " + file.getName(), e);
+        }
+    }
+
+    private Map<String, MappedClassEntry> readCentralDirectory() throws ZipException {
+        int endOfCentralDirectory = findEndOfCentralDirectory();
+        int entryCount = unsignedShort(endOfCentralDirectory + 10);
+        long centralDirectoryOffset = unsignedInt(endOfCentralDirectory + 16);
+        if (entryCount == ZIP64_MARKER || centralDirectoryOffset == ZIP64_MARKER_32) {
+            throw new ZipException("Zip64 archives are not supported");
+        }
+
+        Map<String, MappedClassEntry> result = new LinkedHashMap<>(entryCount * 2);
+        int offset = (int) centralDirectoryOffset;
+        for (int i = 0; i < entryCount; i++) {
+            checkRange(offset, CENTRAL_DIRECTORY_HEADER_SIZE, "Central directory header");
+            if (buffer.getInt(offset) != CENTRAL_DIRECTORY_SIGNATURE) {
+                throw new ZipException("Invalid central directory header at " + offset);
+            }
+            int nameLength = unsignedShort(offset + 28);
+            int extraLength = unsignedShort(offset + 30);
+            int commentLength = unsignedShort(offset + 32);
+            checkRange(offset + CENTRAL_DIRECTORY_HEADER_SIZE, nameLength, "Entry name");
+
+            MappedClassEntry entry = new MappedClassEntry(
+                    readName(offset + CENTRAL_DIRECTORY_HEADER_SIZE, nameLength),
+                    unsignedShort(offset + 8),
+                    unsignedShort(offset + 10),
+                    unsignedInt(offset + 16),
+                    unsignedInt(offset + 20),
+                    unsignedInt(offset + 24),
+                    unsignedInt(offset + 42));
+            if (entry.compressedSize == ZIP64_MARKER_32 || entry.size == ZIP64_MARKER_32
+                    || entry.localHeaderOffset == ZIP64_MARKER_32) {
+                throw new ZipException("Zip64 entry " + entry.name + " is not supported");
+            }
+            result.put(entry.name, entry);
+            offset += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private int findEndOfCentralDirectory() throws ZipException {
+        int lowestOffset = Math.max(0, buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_SIZE);
+        for (int offset = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; offset >= lowestOffset; offset--) {
+            if (buffer.getInt(offset) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return offset;
+            }
+        }
+        throw new ZipException("End of central directory record is not found");
+    }
+
+    /**
+     * Checks that the offset and length read from the archive lie within the mapping, so a corrupt archive fails
+     * with a {@link ZipException} rather than with whatever the buffer throws.
+     */
+    private void checkRange(long offset, long length, String what) throws ZipException {
+        if (offset < 0 || length < 0 || offset + length > buffer.limit()) {
+            throw new ZipException(what + " at " + offset + " of length " + length + " exceeds archive size " + buffer.limit());
+        }
+    }
+
+    private String readName(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.duplicate().position(offset).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int unsignedShort(int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset));
+    }
+
+    private long unsignedInt(int offset) {
+        return Integer.toUnsignedLong(buffer.getInt(offset));
+    }
+
+    @RequiredArgsConstructor
+    private class MappedClassEntry implements ClassEntry {
+        private final String name;
+        private final int flags;
+        private final int method;
+        private final long crc;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getCrc() {
+            return crc;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            ByteBuffer data = getBuffer();
+            if (data.hasArray() && data.arrayOffset() == 0 && data.array().length == data.remaining()) {
+                return data.array();
+            }
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            return bytes;
+        }
+
+        @Override
+        public ByteBuffer getBuffer() {
+            try {
+                ByteBuffer data = rawData();
+                switch (method) {
+                    case STORED:
+                        return data;
+                    case DEFLATED:
+                        return ByteBuffer.wrap(inflate(data));
+                    default:
+                        throw new ZipException("Unsupported compression method " + method + " of " + name);
+                }
+            } catch (ZipException | DataFormatException | IndexOutOfBoundsException e) {
+                throw new UnableToReadJarException("Can't read " + name + " from jar file " + MappedJarClassSource.this.name, e);
+            }
+        }
+
+        private ByteBuffer rawData() throws ZipException {
+            if ((flags & ENCRYPTED_FLAG) != 0) {
+                throw new ZipException("Encrypted entry " + name + " is not supported");
+            }
+            checkRange(localHeaderOffset, LOCAL_HEADER_SIZE, "Local header of " + name);
+            int headerOffset = (int) localHeaderOffset;
+            if (buffer.getInt(headerOffset) != LOCAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid local header of " + name);
+            }
+            int dataOffset = headerOffset + LOCAL_HEADER_SIZE
+                    + unsignedShort(headerOffset + 26) + unsignedShort(headerOffset + 28);
+            checkRange(dataOffset, compressedSize, "Data of " + name);
+            return buffer.duplicate()
+                    .position(dataOffset)
+                    .limit(dataOffset + (int) compressedSize)
+                    .slice()
+                    .asReadOnlyBuffer();
+        }
+
+        private byte[] inflate(ByteBuffer data) throws DataFormatException, ZipException {
+            //deflate expands data at most 1032 times, a larger size can only come from a corrupt central directory
+            if (size > (long) data.remaining() * MAX_DEFLATE_RATIO || size > Integer.MAX_VALUE) {
+                throw new ZipException("Invalid size " + size + " of " + name + " compressed to " + data.remaining() + " bytes");
+            }
+            byte[] result = new byte[(int) size];
+            Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(data);
+                int length = 0;
+                while (length < result.length && !inflater.finished()) {
+                    int inflated = inflater.inflate(result, length, result.length - length);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    length += inflated;
+                }
+                if (length != result.length) {
+                    throw new ZipException("Unexpected size of " + name + ": " + length + " instead of " + result.length);
+                }
+                return result;
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
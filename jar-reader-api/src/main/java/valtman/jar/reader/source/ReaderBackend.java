@@ -0,0 +1,18 @@
+package valtman.jar.reader.source;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.File;
+import java.util.function.Function;
+
+@RequiredArgsConstructor
+public enum ReaderBackend {
+    JAR_FILE(JarFileClassSource::new),
+    MEMORY_MAPPED(MappedJarClassSource::new);
+
+    private final Function<File, ClassSource> factory;
+
+    public ClassSource open(File file) {
+        return factory.apply(file);
+    }
+}
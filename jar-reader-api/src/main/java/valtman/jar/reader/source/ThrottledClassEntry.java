@@ -0,0 +1,60 @@
+package valtman.jar.reader.source;
+
+import lombok.RequiredArgsConstructor;
+import valtman.jar.reader.exception.UnableToReadJarException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Entry which inflates its content only while holding a permit, bounding the number of entries inflated at once.
+ */
+@RequiredArgsConstructor
+public class ThrottledClassEntry implements ClassEntry {
+    private final ClassEntry entry;
+    private final Semaphore permits;
+
+    @Override
+    public String getName() {
+        return entry.getName();
+    }
+
+    @Override
+    public long getCrc() {
+        return entry.getCrc();
+    }
+
+    @Override
+    public long getSize() {
+        return entry.getSize();
+    }
+
+    @Override
+    public byte[] getBytes() {
+        acquire();
+        try {
+            return entry.getBytes();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public ByteBuffer getBuffer() {
+        acquire();
+        try {
+            return entry.getBuffer();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnableToReadJarException("Interrupted while reading " + entry.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package valtman.jar.reader.util;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Renders an annotation as source like text, {@code @java.lang.Deprecated} or {@code @a.b.Path(value="/x")},
+ * while it is visited. Only the annotation name is interned, so every use of an annotation without values
+ * shares one string while the values of the others are not kept in the process-wide table.
+ */
+public class AnnotationRenderer extends AnnotationVisitor {
+    private final String prefix;
+    private final boolean array;
+    private final Consumer<String> result;
+    private final List<String> values = new ArrayList<>();
+
+    private AnnotationRenderer(String prefix, boolean array, Consumer<String> result) {
+        super(Opcodes.ASM7);
+        this.prefix = prefix;
+        this.array = array;
+        this.result = result;
+    }
+
+    public static AnnotationRenderer of(String descriptor, Consumer<String> result) {
+        return new AnnotationRenderer(getReadableAnnotation(descriptor), false, result);
+    }
+
+    @Override
+    public void visit(String name, Object value) {
+        add(name, render(value));
+    }
+
+    @Override
+    public void visitEnum(String name, String descriptor, String value) {
+        add(name, getReadableType(descriptor) + "." + value);
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+        return new AnnotationRenderer(getReadableAnnotation(descriptor), false, value -> add(name, value));
+    }
+
+    @Override
+    public AnnotationVisitor visitArray(String name) {
+        return new AnnotationRenderer("", true, value -> add(name, value));
+    }
+
+    @Override
+    public void visitEnd() {
+        if (array) {
+            result.accept("{" + String.join(", ", values) + "}");
+        } else if (values.isEmpty()) {
+            result.accept(prefix);
+        } else {
+            result.accept(prefix + "(" + String.join(", ", values) + ")");
+        }
+    }
+
+    private void add(String name, String value) {
+        values.add(array || Objects.isNull(name) ? value : name + "=" + value);
+    }
+
+    private static String render(Object value) {
+        if (value instanceof String) {
+            return '"' + (String) value + '"';
+        }
+        if (value instanceof Type) {
+            return ((Type) value).getClassName() + ".class";
+        }
+        if (value.getClass().isArray()) {
+            List<String> elements = new ArrayList<>();
+            for (int i = 0; i < Array.getLength(value); i++) {
+                elements.add(render(Array.get(value, i)));
+            }
+            return "{" + String.join(", ", elements) + "}";
+        }
+        return String.valueOf(value);
+    }
+
+    private static String getReadableAnnotation(String descriptor) {
+        return SymbolInterner.intern("@" + getReadableType(descriptor));
+    }
+
+    private static String getReadableType(String descriptor) {
+        return SymbolInterner.getReadableClassName(Type.getType(descriptor).getInternalName());
+    }
+}
@@ -0,0 +1,90 @@
+package valtman.jar.reader.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.model.signature.MethodSignature;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Semantic hash of a class: covers everything a diff compares and nothing else. Names and descriptors are hashed
+ * by content rather than by constant pool index, and interfaces, methods, exceptions and annotations are combined
+ * regardless of their order, so recompiling an unchanged class with different debug attributes, constant pool
+ * layout or member order gives the same hash. Method bodies are covered when their hashes were read.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ClassHashUtils {
+    private static final long SEED = 0x9e3779b97f4a7c15L;
+    private static final long PRIME = 0x100000001b3L;
+
+    public static long getSemanticHash(String name, int access, String superName, Collection<String> interfaces,
+                                       Collection<MethodSignature> methods, Collection<String> annotations,
+                                       Map<String, List<String>> fieldAnnotations) {
+        long hash = SEED;
+        hash = mix(hash, hash(name));
+        hash = mix(hash, access);
+        hash = mix(hash, hash(superName));
+        hash = mix(hash, unordered(interfaces));
+        hash = mix(hash, unordered(annotations));
+        long fieldsHash = 0;
+        for (Map.Entry<String, List<String>> field : fieldAnnotations.entrySet()) {
+            fieldsHash += finish(mix(hash(field.getKey()), unordered(field.getValue())));
+        }
+        hash = mix(hash, fieldsHash);
+        long methodsHash = 0;
+        for (MethodSignature method : methods) {
+            methodsHash += finish(getSemanticHash(method));
+        }
+        hash = finish(mix(hash, methodsHash));
+        return hash == ClassSignature.NO_SEMANTIC_HASH ? SEED : hash;
+    }
+
+    private static long getSemanticHash(MethodSignature method) {
+        long hash = SEED;
+        hash = mix(hash, method.getAccess());
+        hash = mix(hash, hash(method.getName()));
+        hash = mix(hash, hash(method.getDesc()));
+        hash = mix(hash, unordered(method.getExceptions()));
+        hash = mix(hash, unordered(method.getAnnotations()));
+        return mix(hash, method.getBodyHash());
+    }
+
+    private static long unordered(Collection<String> values) {
+        long hash = values.size();
+        for (String value : values) {
+            hash += finish(hash(value));
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes every char of the value rather than using {@link String#hashCode()}, whose 32 bits collide for
+     * names as short as "Aa" and "BB".
+     */
+    private static long hash(String value) {
+        if (Objects.isNull(value)) {
+            return 0;
+        }
+        long hash = mix(SEED, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            hash = mix(hash, value.charAt(i));
+        }
+        return finish(hash);
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * PRIME;
+    }
+
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53e87b9L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,166 @@
+package valtman.jar.reader.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import valtman.jar.reader.model.MethodModel;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.ColumnarJarSignature;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares two {@link ColumnarJarSignature}s by merging their sorted columns. Only updated methods are turned
+ * into {@link MethodModel}s, the names of added, deleted and unchanged methods are lists rendered on access.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ColumnarDiffUtils {
+
+    public static JarDiffModel getDiff(ColumnarJarSignature firstJar, ColumnarJarSignature secondJar) {
+        if (firstJar.getSymbolTable() != secondJar.getSymbolTable()) {
+            throw new IllegalArgumentException("Jars " + firstJar.getName() + " and " + secondJar.getName()
+                    + " use different symbol tables");
+        }
+        List<String> added = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        List<String> unchanged = new ArrayList<>();
+        IntStream.Builder firstChanged = IntStream.builder();
+        IntStream.Builder secondChanged = IntStream.builder();
+
+        int first = 0;
+        int firstEnd = firstJar.getClassCount();
+        int second = 0;
+        int secondEnd = secondJar.getClassCount();
+        while (first < firstEnd || second < secondEnd) {
+            int order = first == firstEnd ? 1
+                    : second == secondEnd ? -1
+                    : Integer.compare(firstJar.getEntryNameId(first), secondJar.getEntryNameId(second));
+            if (order < 0) {
+                deleted.add(firstJar.getSymbol(firstJar.getEntryNameId(first++)));
+            } else if (order > 0) {
+                added.add(secondJar.getSymbol(secondJar.getEntryNameId(second++)));
+            } else {
+                if (firstJar.hasSameContent(first, secondJar, second) || firstJar.hasSameSemantics(first, secondJar, second)) {
+                    unchanged.add(firstJar.getSymbol(firstJar.getEntryNameId(first)));
+                } else {
+                    firstChanged.add(first);
+                    secondChanged.add(second);
+                }
+                first++;
+                second++;
+            }
+        }
+
+        int[] firstClasses = firstChanged.build().toArray();
+        int[] secondClasses = secondChanged.build().toArray();
+        DiffAccumulator<String, ClassDiffModel> classDiffs = IntStream.range(0, firstClasses.length)
+                .parallel()
+                .boxed()
+                .collect(DiffAccumulator.collector((DiffAccumulator<String, ClassDiffModel> diff, Integer index) -> {
+                    ClassDiffModel classDiff = compareClass(firstJar, firstClasses[index], secondJar, secondClasses[index]);
+                    if (DiffModelUtils.isChanged(classDiff)) {
+                        diff.updated(classDiff);
+                    } else {
+                        diff.unchanged(classDiff.getName());
+                    }
+                }, diff -> diff));
+        unchanged.addAll(classDiffs.getUnchanged());
+
+        return JarDiffModel.jarDiffBuilder()
+                .added(added)
+                .updated(classDiffs.getUpdated())
+                .deleted(deleted)
+                .unchanged(unchanged)
+                .build();
+    }
+
+    private static ClassDiffModel compareClass(ColumnarJarSignature firstJar, int firstClass,
+                                               ColumnarJarSignature secondJar, int secondClass) {
+        IntStream.Builder added = IntStream.builder();
+        IntStream.Builder deleted = IntStream.builder();
+        IntStream.Builder unchanged = IntStream.builder();
+        List<DiffModel<MethodModel, MethodModel>> updated = new ArrayList<>();
+
+        int first = firstJar.getMethodStart(firstClass);
+        int firstEnd = firstJar.getMethodEnd(firstClass);
+        int second = secondJar.getMethodStart(secondClass);
+        int secondEnd = secondJar.getMethodEnd(secondClass);
+        while (first < firstEnd || second < secondEnd) {
+            int order = first == firstEnd ? 1
+                    : second == secondEnd ? -1
+                    : compareMethods(firstJar, first, secondJar, second);
+            if (order < 0) {
+                deleted.add(first++);
+            } else if (order > 0) {
+                added.add(second++);
+            } else {
+                if (firstJar.hasSameExceptions(first, secondJar, second) && firstJar.hasSameAnnotations(first, secondJar, second)
+                        && firstJar.hasSameBody(first, secondJar, second)) {
+                    unchanged.add(first);
+                } else {
+                    updated.add(DiffModelUtils.getUpdatedMethodDiff(firstJar.getMethodSignature(first),
+                            secondJar.getMethodSignature(second)));
+                }
+                first++;
+                second++;
+            }
+        }
+
+        String className = firstJar.getSymbol(firstJar.getClassNameId(firstClass));
+        return ClassDiffModel.builder()
+                .name(firstJar.getSymbol(firstJar.getEntryNameId(firstClass)))
+                .supperClass(DiffModelUtils.getSuperClassDiff(firstJar.getSymbol(firstJar.getSuperNameId(firstClass)),
+                        secondJar.getSymbol(secondJar.getSuperNameId(secondClass))))
+                .interfaces(DiffModelUtils.getInterfaceDiff(toSymbols(firstJar, firstJar.getInterfaceIds(firstClass)),
+                        toSymbols(secondJar, secondJar.getInterfaceIds(secondClass))))
+                .annotations(DiffModelUtils.getAnnotationDiff("annotations", firstJar.getAnnotations(firstClass),
+                        secondJar.getAnnotations(secondClass)))
+                .fieldAnnotations(DiffModelUtils.getFieldAnnotationDiffs(firstJar.getFieldAnnotations(firstClass),
+                        secondJar.getFieldAnnotations(secondClass)))
+                .methods(new DiffModel<>(DiffModelUtils.getReadableName(firstJar.getClassAccess(firstClass), className),
+                        new MethodNameList(secondJar, added.build().toArray()),
+                        updated,
+                        new MethodNameList(firstJar, deleted.build().toArray()),
+                        new MethodNameList(firstJar, unchanged.build().toArray())))
+                .build();
+    }
+
+    private static int compareMethods(ColumnarJarSignature firstJar, int first, ColumnarJarSignature secondJar, int second) {
+        int order = Integer.compare(firstJar.getMethodNameId(first), secondJar.getMethodNameId(second));
+        return order != 0 ? order : Integer.compare(firstJar.getMethodDescId(first), secondJar.getMethodDescId(second));
+    }
+
+    private static List<String> toSymbols(ColumnarJarSignature jar, int[] ids) {
+        return Arrays.stream(ids)
+                .mapToObj(jar::getSymbol)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Readable names of methods of a jar, rendered when an element is read.
+     */
+    @RequiredArgsConstructor
+    private static class MethodNameList extends AbstractList<String> {
+        private final ColumnarJarSignature jar;
+        private final int[] methods;
+
+        @Override
+        public String get(int index) {
+            int method = methods[index];
+            return DiffModelUtils.getReadableMethodName(jar.getMethodAccess(method),
+                    jar.getSymbol(jar.getMethodNameId(method)), jar.getSymbol(jar.getMethodDescId(method)));
+        }
+
+        @Override
+        public int size() {
+            return methods.length;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package valtman.jar.reader.util;
+
+import lombok.Getter;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Mutable container of the added, updated, deleted and unchanged parts of a diff. Parallel streams collect
+ * into one accumulator per split and merge them once, instead of wrapping every element into its own diff model.
+ */
+@Getter
+public class DiffAccumulator<T, U> {
+    private final List<T> added = new ArrayList<>();
+    private final List<U> updated = new ArrayList<>();
+    private final List<T> deleted = new ArrayList<>();
+    private final List<T> unchanged = new ArrayList<>();
+
+    /**
+     * Collects elements into a diff, the classifier puts every element into the right part of the accumulator.
+     */
+    public static <E, T, U, R> Collector<E, DiffAccumulator<T, U>, R> collector(
+            BiConsumer<DiffAccumulator<T, U>, E> classifier, Function<DiffAccumulator<T, U>, R> finisher) {
+        return Collector.of(DiffAccumulator::new, classifier, DiffAccumulator::combine, finisher);
+    }
+
+    public void added(T value) {
+        added.add(value);
+    }
+
+    public void updated(U value) {
+        updated.add(value);
+    }
+
+    public void deleted(T value) {
+        deleted.add(value);
+    }
+
+    public void unchanged(T value) {
+        unchanged.add(value);
+    }
+
+    public void addAll(DiffModel<List<T>, List<U>> diffModel) {
+        addAll(added, diffModel.getAdded());
+        addAll(updated, diffModel.getUpdated());
+        addAll(deleted, diffModel.getDeleted());
+        addAll(unchanged, diffModel.getUnchanged());
+    }
+
+    public DiffAccumulator<T, U> combine(DiffAccumulator<T, U> other) {
+        added.addAll(other.added);
+        updated.addAll(other.updated);
+        deleted.addAll(other.deleted);
+        unchanged.addAll(other.unchanged);
+        return this;
+    }
+
+    public DiffModel<List<T>, List<U>> toDiffModel(String name) {
+        return new DiffModel<>(name, added, updated, deleted, unchanged);
+    }
+
+    public static JarDiffModel toJarDiffModel(DiffAccumulator<String, ClassDiffModel> classes) {
+        return JarDiffModel.jarDiffBuilder()
+                .added(classes.added)
+                .updated(classes.updated)
+                .deleted(classes.deleted)
+                .unchanged(classes.unchanged)
+                .build();
+    }
+
+    private static <V> void addAll(List<V> target, List<V> values) {
+        if (Objects.nonNull(values)) {
+            target.addAll(values);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package valtman.jar.reader.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import valtman.jar.reader.model.MethodModel;
+import valtman.jar.reader.model.diff.ClassDiffModel;
+import valtman.jar.reader.model.diff.DiffModel;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.model.signature.MethodSignature;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Building blocks shared by the diff engines, so that every engine renders the same {@link ClassDiffModel}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class DiffModelUtils {
+
+    private static final int ACCESS_MASK = Modifier.PUBLIC | Modifier.PRIVATE | Modifier.PROTECTED
+            | Modifier.STATIC | Modifier.FINAL | Modifier.ABSTRACT;
+    private static final String[] READABLE_ACCESS = IntStream.rangeClosed(0, ACCESS_MASK)
+            .mapToObj(access -> (access & ~ACCESS_MASK) == 0 ? renderAccess(access) : null)
+            .toArray(String[]::new);
+
+    public static String getReadableClassName(String className) {
+        return Objects.isNull(className) ? null : SymbolInterner.getReadableClassName(className);
+    }
+
+    public static String getReadableAccess(int access) {
+        return READABLE_ACCESS[access & ACCESS_MASK];
+    }
+
+    public static String getReadableName(int access, String name) {
+        String readableAccess = getReadableAccess(access);
+        if (readableAccess.isEmpty()) {
+            return name;
+        }
+        return readableAccess + " " + name;
+    }
+
+    public static String getReadableMethodName(MethodSignature method) {
+        return getReadableMethodName(method.getAccess(), method.getName(), method.getDesc());
+    }
+
+    public static String getReadableMethodName(int access, String name, String desc) {
+        return getReadableName(access, name) + SymbolInterner.getReadableDescriptor(desc);
+    }
+
+    public static boolean isSameMethod(MethodSignature firstMethod, MethodSignature secondMethod) {
+        return firstMethod.getName().equals(secondMethod.getName())
+                && firstMethod.getDesc().equals(secondMethod.getDesc())
+                && new HashSet<>(firstMethod.getExceptions()).equals(new HashSet<>(secondMethod.getExceptions()))
+                && new HashSet<>(firstMethod.getAnnotations()).equals(new HashSet<>(secondMethod.getAnnotations()))
+                && firstMethod.hasSameBody(secondMethod);
+    }
+
+    public static boolean isChanged(ClassDiffModel classDiff) {
+        return isCollectionChanged(classDiff.getMethods())
+                || isCollectionChanged(classDiff.getAnnotations())
+                || isNotEmpty(classDiff.getFieldAnnotations())
+                || isCollectionChanged(classDiff.getInterfaces())
+                || isObjectChanged(classDiff.getSupperClass());
+    }
+
+    public static boolean isChanged(JarDiffModel jarDiff) {
+        return isNotEmpty(jarDiff.getAdded())
+                || isNotEmpty(jarDiff.getDeleted())
+                || isNotEmpty(jarDiff.getUpdated())
+                || isCollectionChanged(jarDiff.getNestedJars());
+    }
+
+    public static DiffModel<String, String> getSuperClassDiff(String firstSupperClass, String secondSupperClass) {
+        if (Objects.equals(firstSupperClass, secondSupperClass)) {
+            return DiffModel.<String, String>builder()
+                    .unchanged(getReadableClassName(firstSupperClass))
+                    .build();
+        }
+        return DiffModel.<String, String>builder()
+                .deleted(getReadableClassName(firstSupperClass))
+                .added(getReadableClassName(secondSupperClass))
+                .build();
+    }
+
+    public static DiffModel<List<String>, List<String>> getInterfaceDiff(List<String> first, List<String> second) {
+        //TODO the number of interfaces for single class is usually small but still should be checked
+        Set<String> addedInterfaces = new HashSet<>(second);
+        List<String> unchangedInterfaces = new ArrayList<>();
+
+        List<String> deletedReadableInterfaces = first.stream()
+                .filter(name -> !(addedInterfaces.remove(name) && unchangedInterfaces.add(name)))
+                .map(DiffModelUtils::getReadableClassName)
+                .collect(Collectors.toUnmodifiableList());
+
+        List<String> unchangedReadableInterfaces = unchangedInterfaces.stream()
+                .map(DiffModelUtils::getReadableClassName)
+                .collect(Collectors.toList());
+
+        List<String> addedReadableInterfaces = addedInterfaces.stream()
+                .map(DiffModelUtils::getReadableClassName)
+                .collect(Collectors.toList());
+
+        return new DiffModel<>("interfaces", addedReadableInterfaces, null,
+                deletedReadableInterfaces, unchangedReadableInterfaces);
+    }
+
+    /**
+     * Compares annotations regardless of their order, annotations are already rendered readable.
+     */
+    public static DiffModel<List<String>, List<String>> getAnnotationDiff(String name, List<String> first, List<String> second) {
+        Set<String> added = new LinkedHashSet<>(second);
+        List<String> unchanged = new ArrayList<>();
+        List<String> deleted = first.stream()
+                .filter(annotation -> !(added.remove(annotation) && unchanged.add(annotation)))
+                .collect(Collectors.toUnmodifiableList());
+        return new DiffModel<>(name, new ArrayList<>(added), null, deleted, unchanged);
+    }
+
+    /**
+     * Returns annotation diffs of the fields whose annotations changed, ordered by field name.
+     * A field missing from a class counts as a field without annotations.
+     */
+    public static List<DiffModel<List<String>, List<String>>> getFieldAnnotationDiffs(Map<String, List<String>> first,
+                                                                                      Map<String, List<String>> second) {
+        Set<String> fields = new TreeSet<>(first.keySet());
+        fields.addAll(second.keySet());
+        return fields.stream()
+                .map(field -> getAnnotationDiff(field, first.getOrDefault(field, List.of()), second.getOrDefault(field, List.of())))
+                .filter(DiffModelUtils::isCollectionChanged)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    public static DiffModel<MethodModel, MethodModel> getUpdatedMethodDiff(MethodSignature firstMethod, MethodSignature secondMethod) {
+
+        MethodModel.MethodModelBuilder unchangedMethodData = MethodModel.builder();
+        MethodModel.MethodModelBuilder deletedMethodData = MethodModel.builder();
+        MethodModel.MethodModelBuilder addedMethodData = MethodModel.builder();
+
+        compareReturnType(firstMethod, secondMethod, unchangedMethodData, deletedMethodData, addedMethodData);
+        compareAccess(firstMethod, secondMethod, unchangedMethodData, deletedMethodData, addedMethodData);
+
+        unchangedMethodData.methodName(firstMethod.getName());
+        unchangedMethodData.argumentTypes(SymbolInterner.getReadableArgumentTypes(firstMethod.getDesc()));
+
+        compareExceptions(firstMethod, secondMethod, unchangedMethodData, deletedMethodData, addedMethodData);
+
+        DiffModel<List<String>, List<String>> annotations = getAnnotationDiff(firstMethod.getName(),
+                firstMethod.getAnnotations(), secondMethod.getAnnotations());
+        unchangedMethodData.annotations(annotations.getUnchanged());
+        addedMethodData.annotations(annotations.getAdded());
+        deletedMethodData.annotations(annotations.getDeleted());
+
+        return DiffModel.<MethodModel, MethodModel>builder()
+                .name(firstMethod.getName())
+                .unchanged(unchangedMethodData.build())
+                .deleted(deletedMethodData.build())
+                .added(addedMethodData.build())
+                .updated(getImplementationDiff(firstMethod, secondMethod))
+                .build();
+    }
+
+    private static MethodModel getImplementationDiff(MethodSignature firstMethod, MethodSignature secondMethod) {
+        if (firstMethod.hasSameBody(secondMethod)) {
+            return null;
+        }
+        return MethodModel.builder()
+                .implementationChanged(true)
+                .build();
+    }
+
+    private static void compareExceptions(MethodSignature firstMethod, MethodSignature secondMethod, MethodModel.MethodModelBuilder unchangedMethodData, MethodModel.MethodModelBuilder deletedMethodData, MethodModel.MethodModelBuilder addedMethodData) {
+        List<String> deletedExceptions = new ArrayList<>(firstMethod.getExceptions());
+        List<String> unchangedReadableExceptions = new ArrayList<>();
+        List<String> addedReadableExceptions = secondMethod.getExceptions().stream()
+                .filter(exceptionClass -> !(deletedExceptions.remove(exceptionClass)
+                        && unchangedReadableExceptions.add(getReadableClassName(exceptionClass))))
+                .map(DiffModelUtils::getReadableClassName)
+                .collect(Collectors.toUnmodifiableList());
+
+        unchangedMethodData.exceptions(unchangedReadableExceptions);
+        addedMethodData.exceptions(addedReadableExceptions);
+        deletedMethodData.exceptions(deletedExceptions.stream()
+                .map(DiffModelUtils::getReadableClassName)
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    private static void compareReturnType(MethodSignature firstMethod, MethodSignature secondMethod, MethodModel.MethodModelBuilder unchangedMethodData, MethodModel.MethodModelBuilder deletedMethodData, MethodModel.MethodModelBuilder addedMethodData) {
+        String firstReturnType = SymbolInterner.getReadableReturnType(firstMethod.getDesc());
+        String secondReturnType = SymbolInterner.getReadableReturnType(secondMethod.getDesc());
+
+        if (firstReturnType.equals(secondReturnType)) {
+            unchangedMethodData.returnType(firstReturnType);
+        } else {
+            deletedMethodData.returnType(firstReturnType);
+            addedMethodData.returnType(secondReturnType);
+        }
+    }
+
+    private static void compareAccess(MethodSignature firstMethod, MethodSignature secondMethod, MethodModel.MethodModelBuilder unchangedMethodData, MethodModel.MethodModelBuilder deletedMethodData, MethodModel.MethodModelBuilder addedMethodData) {
+        String firstAccess = getReadableAccess(firstMethod.getAccess());
+        String secondAccess = getReadableAccess(secondMethod.getAccess());
+
+        if (firstAccess.equals(secondAccess)) {
+            unchangedMethodData.access(firstAccess);
+        } else {
+            deletedMethodData.access(firstAccess);
+            addedMethodData.access(secondAccess);
+        }
+    }
+
+    private static String renderAccess(int access) {
+        ArrayList<String> accessLine = new ArrayList<>();
+
+        if (Modifier.isPrivate(access)) {
+            accessLine.add("private");
+        } else if (Modifier.isProtected(access)) {
+            accessLine.add("protected");
+        } else if (Modifier.isPublic(access)) {
+            accessLine.add("public");
+        }
+
+        if (Modifier.isStatic(access)) {
+            accessLine.add("static");
+        }
+
+        if (Modifier.isFinal(access)) {
+            accessLine.add("final");
+        }
+
+        if (Modifier.isAbstract(access)) {
+            accessLine.add("abstract");
+        }
+
+        return String.join(" ", accessLine);
+    }
+
+    private static <U> boolean isObjectChanged(DiffModel<String, U> diffModel) {
+        if (Objects.isNull(diffModel)) {
+            return false;
+        }
+        return Objects.nonNull(diffModel.getAdded())
+                || Objects.nonNull(diffModel.getDeleted())
+                || Objects.nonNull(diffModel.getUpdated());
+    }
+
+    private static <T, U> boolean isCollectionChanged(DiffModel<List<T>, List<U>> diffModel) {
+        if (Objects.isNull(diffModel)) {
+            return false;
+        }
+        return isNotEmpty(diffModel.getAdded())
+                || isNotEmpty(diffModel.getDeleted())
+                || isNotEmpty(diffModel.getUpdated());
+    }
+
+    private static boolean isNotEmpty(Collection<?> collection) {
+        return Objects.nonNull(collection) && !collection.isEmpty();
+    }
+}
@@ -0,0 +1,34 @@
+package valtman.jar.reader.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ExecutorUtils {
+
+    /**
+     * Executor for tasks which mostly wait for I/O: virtual threads when the runtime provides them,
+     * otherwise a cached pool of daemon threads. The module targets Java 11, so virtual threads are looked up reflectively.
+     */
+    public static ExecutorService newIoExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return Executors.newCachedThreadPool(daemonThreadFactory());
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaultFactory.newThread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
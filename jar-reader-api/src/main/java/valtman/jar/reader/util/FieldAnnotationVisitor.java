@@ -0,0 +1,35 @@
+package valtman.jar.reader.util;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Collects the annotations of a field, the result is reported only for annotated fields.
+ */
+public class FieldAnnotationVisitor extends FieldVisitor {
+    private final Consumer<List<String>> result;
+    private final List<String> annotations = new ArrayList<>();
+
+    public FieldAnnotationVisitor(Consumer<List<String>> result) {
+        super(Opcodes.ASM7);
+        this.result = result;
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        return AnnotationRenderer.of(descriptor, annotations::add);
+    }
+
+    @Override
+    public void visitEnd() {
+        if (!annotations.isEmpty()) {
+            result.accept(Collections.unmodifiableList(annotations));
+        }
+    }
+}
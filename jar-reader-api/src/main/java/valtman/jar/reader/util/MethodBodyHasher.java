@@ -0,0 +1,235 @@
+package valtman.jar.reader.util;
+
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import valtman.jar.reader.model.signature.MethodSignature;
+
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * Fingerprints a method body while the class is read, without building an instruction list.
+ * Operands are hashed by the full content of the constants, names and descriptors they resolve to rather than
+ * by constant pool indices or {@code hashCode}, and labels by the order they first appear in, so recompiling
+ * the same code into a different constant pool gives the same hash. Debug attributes and stack map frames are expected to be skipped by the reader.
+ */
+public class MethodBodyHasher extends MethodVisitor {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final int LABEL_MARKER = -1;
+    private static final int TRY_CATCH_MARKER = -2;
+    private static final int NULL_MARKER = -3;
+    private static final int INT_CONSTANT = 1;
+    private static final int FLOAT_CONSTANT = 2;
+    private static final int LONG_CONSTANT = 3;
+    private static final int DOUBLE_CONSTANT = 4;
+    private static final int STRING_CONSTANT = 5;
+    private static final int TYPE_CONSTANT = 6;
+    private static final int HANDLE_CONSTANT = 7;
+    private static final int DYNAMIC_CONSTANT = 8;
+
+    private final LongConsumer result;
+    private long hash = OFFSET_BASIS;
+    private int labelCount;
+
+    public MethodBodyHasher(LongConsumer result) {
+        super(Opcodes.ASM7);
+        this.result = result;
+    }
+
+    @Override
+    public void visitInsn(int opcode) {
+        mix(opcode);
+    }
+
+    @Override
+    public void visitIntInsn(int opcode, int operand) {
+        mix(opcode);
+        mix(operand);
+    }
+
+    @Override
+    public void visitVarInsn(int opcode, int var) {
+        mix(opcode);
+        mix(var);
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type) {
+        mix(opcode);
+        mix(type);
+    }
+
+    @Override
+    public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+        mix(opcode);
+        mix(owner);
+        mix(name);
+        mix(descriptor);
+    }
+
+    @Override
+    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+        mix(opcode);
+        mix(owner);
+        mix(name);
+        mix(descriptor);
+        mix(isInterface ? 1 : 0);
+    }
+
+    @Override
+    public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+        mix(Opcodes.INVOKEDYNAMIC);
+        mix(name);
+        mix(descriptor);
+        mixConstant(bootstrapMethodHandle);
+        for (Object argument : bootstrapMethodArguments) {
+            mixConstant(argument);
+        }
+    }
+
+    @Override
+    public void visitJumpInsn(int opcode, Label label) {
+        mix(opcode);
+        mix(label);
+    }
+
+    @Override
+    public void visitLabel(Label label) {
+        mix(LABEL_MARKER);
+        mix(label);
+    }
+
+    @Override
+    public void visitLdcInsn(Object value) {
+        mix(Opcodes.LDC);
+        mixConstant(value);
+    }
+
+    @Override
+    public void visitIincInsn(int var, int increment) {
+        mix(Opcodes.IINC);
+        mix(var);
+        mix(increment);
+    }
+
+    @Override
+    public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+        mix(Opcodes.TABLESWITCH);
+        mix(min);
+        mix(max);
+        mix(dflt);
+        for (Label label : labels) {
+            mix(label);
+        }
+    }
+
+    @Override
+    public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+        mix(Opcodes.LOOKUPSWITCH);
+        mix(dflt);
+        for (int i = 0; i < keys.length; i++) {
+            mix(keys[i]);
+            mix(labels[i]);
+        }
+    }
+
+    @Override
+    public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+        mix(Opcodes.MULTIANEWARRAY);
+        mix(descriptor);
+        mix(numDimensions);
+    }
+
+    @Override
+    public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+        mix(TRY_CATCH_MARKER);
+        mix(start);
+        mix(end);
+        mix(handler);
+        mix(type);
+    }
+
+    @Override
+    public void visitEnd() {
+        result.accept(hash == MethodSignature.NO_BODY_HASH ? OFFSET_BASIS : hash);
+    }
+
+    private void mix(Label label) {
+        //labels are created per method by the reader, so their user slot is free to number them
+        if (Objects.isNull(label.info)) {
+            label.info = labelCount++;
+        }
+        mix((int) label.info);
+    }
+
+    /**
+     * Mixes the full content of a constant, so constants whose {@code hashCode} collides still hash apart.
+     */
+    private void mixConstant(Object value) {
+        if (value instanceof Integer) {
+            mix(INT_CONSTANT);
+            mix((int) value);
+        } else if (value instanceof Float) {
+            mix(FLOAT_CONSTANT);
+            mix(Float.floatToRawIntBits((float) value));
+        } else if (value instanceof Long) {
+            mix(LONG_CONSTANT);
+            mix((long) value);
+        } else if (value instanceof Double) {
+            mix(DOUBLE_CONSTANT);
+            mix(Double.doubleToRawLongBits((double) value));
+        } else if (value instanceof String) {
+            mix(STRING_CONSTANT);
+            mix((String) value);
+        } else if (value instanceof Type) {
+            mix(TYPE_CONSTANT);
+            mix(((Type) value).getDescriptor());
+        } else if (value instanceof Handle) {
+            Handle handle = (Handle) value;
+            mix(HANDLE_CONSTANT);
+            mix(handle.getTag());
+            mix(handle.getOwner());
+            mix(handle.getName());
+            mix(handle.getDesc());
+            mix(handle.isInterface() ? 1 : 0);
+        } else if (value instanceof ConstantDynamic) {
+            ConstantDynamic constant = (ConstantDynamic) value;
+            mix(DYNAMIC_CONSTANT);
+            mix(constant.getName());
+            mix(constant.getDescriptor());
+            mixConstant(constant.getBootstrapMethod());
+            mix(constant.getBootstrapMethodArgumentCount());
+            for (int i = 0; i < constant.getBootstrapMethodArgumentCount(); i++) {
+                mixConstant(constant.getBootstrapMethodArgument(i));
+            }
+        } else {
+            mix(value.getClass().getName());
+            mix(String.valueOf(value));
+        }
+    }
+
+    private void mix(String value) {
+        if (Objects.isNull(value)) {
+            mix(NULL_MARKER);
+            return;
+        }
+        mix(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            mix(value.charAt(i));
+        }
+    }
+
+    private void mix(long value) {
+        mix((int) (value >>> 32));
+        mix((int) value);
+    }
+
+    private void mix(int value) {
+        hash = (hash ^ value) * PRIME;
+    }
+}
@@ -0,0 +1,57 @@
+package valtman.jar.reader.util;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import valtman.jar.reader.model.signature.MethodSignature;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Completes a method signature with the annotations of the method and, when asked to, the hash of its body,
+ * both collected from the events of the same read.
+ */
+public class MethodSignatureVisitor extends MethodVisitor {
+    private final MethodSignature.MethodSignatureBuilder method;
+    private final Consumer<MethodSignature> result;
+    private final List<String> annotations = new ArrayList<>();
+    private long bodyHash = MethodSignature.NO_BODY_HASH;
+
+    public MethodSignatureVisitor(MethodSignature.MethodSignatureBuilder method, boolean methodBodies,
+                                  Consumer<MethodSignature> result) {
+        super(Opcodes.ASM7);
+        this.method = method;
+        this.result = result;
+        if (methodBodies) {
+            mv = new MethodBodyHasher(hash -> bodyHash = hash);
+        }
+    }
+
+    /**
+     * Completes the method with the annotations and body hash of a signature read earlier,
+     * used when a signature is replayed as visitor events.
+     */
+    public void replay(MethodSignature methodSignature) {
+        result.accept(method
+                .annotations(methodSignature.getAnnotations())
+                .bodyHash(methodSignature.getBodyHash())
+                .build());
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        return AnnotationRenderer.of(descriptor, annotations::add);
+    }
+
+    @Override
+    public void visitEnd() {
+        super.visitEnd();
+        result.accept(method
+                .annotations(annotations.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(annotations))
+                .bodyHash(bodyHash)
+                .build());
+    }
+}
@@ -1,31 +1,72 @@
 package valtman.jar.reader.util;
 
 import org.objectweb.asm.ClassReader;
-import valtman.jar.reader.exception.UnableToReadJarException;
+import valtman.jar.reader.source.ClassEntry;
+import valtman.jar.reader.source.ClassSource;
+import valtman.jar.reader.source.ClasspathClassSource;
+import valtman.jar.reader.source.DirectoryClassSource;
+import valtman.jar.reader.source.MappedJarClassSource;
+import valtman.jar.reader.source.ReaderBackend;
 
 import java.io.File;
-import java.io.IOException;
-import java.util.Enumeration;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public class ReaderUtils {
     public static Map<String, ClassReader> load(File jarFile) {
-        Map<String, ClassReader> classReaderMap = new HashMap<>();
-        try (JarFile jar = new JarFile(jarFile)) {
-            Enumeration<JarEntry> enumeration = jar.entries();
-            while (enumeration.hasMoreElements()) {
-                JarEntry next = enumeration.nextElement();
-                if (next.getName().endsWith(".class")) {
-                    ClassReader reader = new ClassReader(jar.getInputStream(next));
-                    classReaderMap.put(next.getRealName(), reader);
-                }
-            }
-        } catch (IOException e) {
-            throw new UnableToReadJarException("Can't read jar file " + jarFile.getName(), e);
+        try (ClassSource source = open(jarFile)) {
+            return source.entries()
+                    .collect(Collectors.toMap(ClassEntry::getName, ClassEntry::getClassReader,
+                            (firstReader, duplicateReader) -> firstReader));
         }
-        return classReaderMap;
+    }
+
+    public static ClassSource open(File jarFile) {
+        return open(jarFile, ReaderBackend.JAR_FILE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Opens a jar with the given backend or, for a directory, its class files listed on the given pool.
+     */
+    public static ClassSource open(File jarFile, ReaderBackend backend, ForkJoinPool walkPool) {
+        if (jarFile.isDirectory()) {
+            return new DirectoryClassSource(jarFile, walkPool);
+        }
+        return backend.open(jarFile);
+    }
+
+    /**
+     * Opens the jars and directories of a classpath as one source, earlier entries shadow later ones.
+     */
+    public static ClassSource openClasspath(List<File> classpath, ReaderBackend backend, ForkJoinPool walkPool) {
+        List<ClassSource> sources = new ArrayList<>(classpath.size());
+        try {
+            classpath.forEach(file -> sources.add(open(file, backend, walkPool)));
+        } catch (RuntimeException e) {
+            sources.forEach(ClassSource::close);
+            throw e;
+        }
+        return new ClasspathClassSource(classpath.stream()
+                .map(File::getName)
+                .collect(Collectors.joining(File.pathSeparator)), sources);
+    }
+
+    public static List<File> parseClasspath(String classpath) {
+        return Arrays.stream(classpath.split(File.pathSeparator))
+                .filter(Predicate.not(String::isEmpty))
+                .map(File::new)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Opens a jar nested in another archive without extracting it, stored jars are read straight from the outer archive.
+     */
+    public static ClassSource openNested(ClassEntry nestedArchive) {
+        return new MappedJarClassSource(nestedArchive.getName(), nestedArchive.getBuffer());
     }
 }
@@ -0,0 +1,101 @@
+package valtman.jar.reader.util;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.model.signature.MethodSignature;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Collects class and method signatures without building a tree model. Annotations of the class, its methods and
+ * fields are rendered by {@link AnnotationRenderer}s and method bodies are either skipped or fingerprinted
+ * by a {@link MethodBodyHasher}, all in the same pass, see {@link SignatureUtils#getParsingOptions(boolean)}.
+ * Names and descriptors are interned, so signatures of different classes and jars share them.
+ * The semantic hash of the class is computed from the same events, see {@link ClassHashUtils}.
+ */
+public class SignatureClassVisitor extends ClassVisitor {
+    private final ClassSignature.ClassSignatureBuilder classSignature = ClassSignature.builder();
+    private final Map<String, MethodSignature> methods = new HashMap<>();
+    private final boolean methodBodies;
+    private String name;
+    private int access;
+    private String superName;
+    private List<String> interfaces = Collections.emptyList();
+    private final List<String> annotations = new ArrayList<>();
+    private final Map<String, List<String>> fieldAnnotations = new HashMap<>();
+
+    public SignatureClassVisitor() {
+        this(-1, -1);
+    }
+
+    public SignatureClassVisitor(long crc, long size) {
+        this(crc, size, false);
+    }
+
+    public SignatureClassVisitor(long crc, long size, boolean methodBodies) {
+        super(Opcodes.ASM7);
+        this.methodBodies = methodBodies;
+        classSignature.crc(crc).size(size);
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+        this.name = SymbolInterner.intern(name);
+        this.access = access;
+        this.superName = SymbolInterner.intern(superName);
+        this.interfaces = toList(SymbolInterner.intern(interfaces));
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        return AnnotationRenderer.of(descriptor, annotations::add);
+    }
+
+    @Override
+    public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+        String fieldName = SymbolInterner.intern(name);
+        return new FieldAnnotationVisitor(fieldAnnotation -> fieldAnnotations.put(fieldName, fieldAnnotation));
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+        MethodSignature.MethodSignatureBuilder method = MethodSignature.builder()
+                .access(access)
+                .name(SymbolInterner.intern(name))
+                .desc(SymbolInterner.intern(desc))
+                .exceptions(toList(SymbolInterner.intern(exceptions)));
+        return new MethodSignatureVisitor(method, methodBodies, this::addMethod);
+    }
+
+    public ClassSignature getClassSignature() {
+        return classSignature
+                .name(name)
+                .access(access)
+                .superName(superName)
+                .interfaces(interfaces)
+                .methods(Collections.unmodifiableMap(methods))
+                .annotations(annotations.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(annotations))
+                .fieldAnnotations(fieldAnnotations.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(fieldAnnotations))
+                .semanticHash(ClassHashUtils.getSemanticHash(name, access, superName, interfaces, methods.values(),
+                        annotations, fieldAnnotations))
+                .build();
+    }
+
+    private void addMethod(MethodSignature method) {
+        methods.put(method.getKey(), method);
+    }
+
+    private static List<String> toList(String[] values) {
+        return Objects.isNull(values) ? Collections.emptyList() : Arrays.asList(values);
+    }
+}
@@ -0,0 +1,75 @@
+package valtman.jar.reader.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.source.ClassEntry;
+
+import java.util.Objects;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class SignatureUtils {
+
+    public static final int SIGNATURE_PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+    public static final int METHOD_BODY_PARSING_OPTIONS = ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+    public static int getParsingOptions(boolean methodBodies) {
+        return methodBodies ? METHOD_BODY_PARSING_OPTIONS : SIGNATURE_PARSING_OPTIONS;
+    }
+
+    public static ClassSignature readSignature(ClassReader classReader) {
+        SignatureClassVisitor visitor = new SignatureClassVisitor();
+        classReader.accept(visitor, SIGNATURE_PARSING_OPTIONS);
+        return visitor.getClassSignature();
+    }
+
+    public static ClassSignature readSignature(ClassEntry classEntry) {
+        return readSignature(classEntry, false);
+    }
+
+    public static ClassSignature readSignature(ClassEntry classEntry, boolean methodBodies) {
+        return readSignature(classEntry.getClassReader(), classEntry.getCrc(), classEntry.getSize(), methodBodies);
+    }
+
+    /**
+     * Reads the signature of an already read class, keeping the CRC-32 and size of its entry.
+     */
+    public static ClassSignature readSignature(ClassReader classReader, long crc, long size) {
+        return readSignature(classReader, crc, size, false);
+    }
+
+    /**
+     * Reads the signature in a single pass, fingerprinting method bodies when asked to.
+     */
+    public static ClassSignature readSignature(ClassReader classReader, long crc, long size, boolean methodBodies) {
+        SignatureClassVisitor visitor = new SignatureClassVisitor(crc, size, methodBodies);
+        classReader.accept(visitor, getParsingOptions(methodBodies));
+        return visitor.getClassSignature();
+    }
+
+    /**
+     * Replays a signature as visitor events, so that visitor based code can consume signatures read earlier.
+     * Bodies and annotations of methods are not replayed, a {@link MethodSignatureVisitor} receives them
+     * from the signature instead. Annotations of the class and its fields are not replayed.
+     */
+    public static void accept(ClassSignature classSignature, ClassVisitor classVisitor) {
+        classVisitor.visit(Opcodes.V1_8, classSignature.getAccess(), classSignature.getName(), null,
+                classSignature.getSuperName(), classSignature.getInterfaces().toArray(String[]::new));
+        classSignature.getMethods()
+                .values()
+                .forEach(method -> {
+                    MethodVisitor methodVisitor = classVisitor.visitMethod(method.getAccess(), method.getName(),
+                            method.getDesc(), null, method.getExceptions().toArray(String[]::new));
+                    if (methodVisitor instanceof MethodSignatureVisitor) {
+                        ((MethodSignatureVisitor) methodVisitor).replay(method);
+                    } else if (Objects.nonNull(methodVisitor)) {
+                        methodVisitor.visitEnd();
+                    }
+                });
+        classVisitor.visitEnd();
+    }
+}
@@ -0,0 +1,116 @@
+package valtman.jar.reader.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.objectweb.asm.Type;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Process-wide weak interning of the internal names and descriptors met while reading jars, and memoised readable
+ * renderings of them, so signatures and models built by different diffs share the same string and list instances.
+ * Symbols are held weakly: once no signature or model of a live diff refers to a symbol, it and its renderings
+ * are released, so a long-running process does not grow with every jar it has read.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class SymbolInterner {
+    private static final WeakCache<String> SYMBOLS = new WeakCache<>(WeakReference::new);
+    private static final WeakCache<String> READABLE_CLASS_NAMES = new WeakCache<>(SoftReference::new);
+    private static final WeakCache<Descriptor> DESCRIPTORS = new WeakCache<>(SoftReference::new);
+
+    /**
+     * Returns the shared instance of the symbol, null stays null.
+     */
+    public static String intern(String symbol) {
+        return Objects.isNull(symbol) ? null : SYMBOLS.get(symbol, Function.identity());
+    }
+
+    public static String[] intern(String[] values) {
+        if (Objects.isNull(values)) {
+            return null;
+        }
+        String[] result = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = intern(values[i]);
+        }
+        return result;
+    }
+
+    public static String getReadableClassName(String internalName) {
+        return READABLE_CLASS_NAMES.get(intern(internalName), name -> intern(name.replace('/', '.')));
+    }
+
+    public static List<String> getReadableArgumentTypes(String methodDescriptor) {
+        return getDescriptor(methodDescriptor).argumentTypes;
+    }
+
+    public static String getReadableReturnType(String methodDescriptor) {
+        return getDescriptor(methodDescriptor).returnType;
+    }
+
+    /**
+     * Renders the descriptor as {@code (argument,types):return.Type}.
+     */
+    public static String getReadableDescriptor(String methodDescriptor) {
+        return getDescriptor(methodDescriptor).readable;
+    }
+
+    private static Descriptor getDescriptor(String methodDescriptor) {
+        return DESCRIPTORS.get(intern(methodDescriptor), Descriptor::new);
+    }
+
+    private static class Descriptor {
+        private final List<String> argumentTypes;
+        private final String returnType;
+        private final String readable;
+
+        private Descriptor(String methodDescriptor) {
+            this.argumentTypes = Arrays.stream(Type.getArgumentTypes(methodDescriptor))
+                    .map(type -> intern(type.getClassName()))
+                    .collect(Collectors.toUnmodifiableList());
+            this.returnType = intern(Type.getReturnType(methodDescriptor).getClassName());
+            this.readable = "(" + String.join(",", argumentTypes) + "):" + returnType;
+        }
+    }
+
+    /**
+     * Map with weak keys striped over several locks, values are held by the references the factory creates.
+     */
+    private static class WeakCache<V> {
+        private static final int STRIPES = 64;
+
+        private final List<Map<String, Reference<V>>> stripes = new ArrayList<>(STRIPES);
+        private final Function<V, Reference<V>> referenceFactory;
+
+        private WeakCache(Function<V, Reference<V>> referenceFactory) {
+            this.referenceFactory = referenceFactory;
+            for (int i = 0; i < STRIPES; i++) {
+                stripes.add(new WeakHashMap<>());
+            }
+        }
+
+        private V get(String key, Function<String, V> valueFactory) {
+            int hash = key.hashCode();
+            Map<String, Reference<V>> stripe = stripes.get((hash ^ (hash >>> 16)) & (STRIPES - 1));
+            synchronized (stripe) {
+                Reference<V> reference = stripe.get(key);
+                V value = Objects.isNull(reference) ? null : reference.get();
+                if (Objects.isNull(value)) {
+                    value = valueFactory.apply(key);
+                    stripe.put(key, referenceFactory.apply(value));
+                }
+                return value;
+            }
+        }
+    }
+}
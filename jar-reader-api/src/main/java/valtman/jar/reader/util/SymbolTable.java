@@ -0,0 +1,55 @@
+package valtman.jar.reader.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe table of the symbols of signatures compared with each other, every symbol is stored once
+ * under a compact id. The table only grows, so it is scoped to the signatures which share it, such as both jars
+ * of a diff, and released with them. Process-wide sharing of symbols is left to {@link SymbolInterner}.
+ */
+public class SymbolTable {
+    public static final int NO_ID = -1;
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+    private volatile String[] symbols = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the instance of the symbol stored in the table, null stays null.
+     */
+    public String intern(String symbol) {
+        return symbol == null ? null : getSymbol(getId(symbol));
+    }
+
+    public int getId(String symbol) {
+        return ids.computeIfAbsent(symbol, this::register);
+    }
+
+    /**
+     * Returns the id of the symbol or {@link #NO_ID} if the symbol is not in the table, without registering it.
+     */
+    public int findId(String symbol) {
+        return ids.getOrDefault(symbol, NO_ID);
+    }
+
+    public String getSymbol(int id) {
+        return symbols[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    private synchronized int register(String symbol) {
+        String[] current = symbols;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = symbol;
+        symbols = current;
+        return size++;
+    }
+}
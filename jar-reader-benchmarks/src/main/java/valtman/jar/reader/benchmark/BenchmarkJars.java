@@ -0,0 +1,54 @@
+package valtman.jar.reader.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import valtman.jar.reader.event.JarEventReaderService;
+import valtman.jar.reader.object.JarObjectReaderService;
+import valtman.jar.reader.service.AbstractJarReaderService;
+import valtman.jar.reader.source.ReaderBackend;
+
+import java.io.File;
+import java.util.stream.Stream;
+
+/**
+ * Locates the lombok jars bundled with the jar-object-reader tests. The directory can be overridden
+ * with the {@code jar.reader.benchmark.jars} system property.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BenchmarkJars {
+    private static final String JARS_PROPERTY = "jar.reader.benchmark.jars";
+    private static final String TEST_RESOURCES = "jar-object-reader/src/test/resources";
+
+    public static final String OBJECT_ENGINE = "object";
+    public static final String EVENT_ENGINE = "event";
+
+    public static File get(String name) {
+        File jar = new File(getDirectory(), name);
+        if (!jar.isFile()) {
+            throw new IllegalStateException("Benchmark jar " + jar.getAbsolutePath() + " is not found, set -D" + JARS_PROPERTY);
+        }
+        return jar;
+    }
+
+    public static AbstractJarReaderService createService(String engine, ReaderBackend readerBackend) {
+        switch (engine) {
+            case OBJECT_ENGINE:
+                return new JarObjectReaderService(readerBackend);
+            case EVENT_ENGINE:
+                return new JarEventReaderService(readerBackend);
+            default:
+                throw new IllegalArgumentException("Unknown jar reader engine " + engine);
+        }
+    }
+
+    private static File getDirectory() {
+        String directory = System.getProperty(JARS_PROPERTY);
+        if (directory != null) {
+            return new File(directory);
+        }
+        return Stream.of(new File(TEST_RESOURCES), new File("..", TEST_RESOURCES))
+                .filter(File::isDirectory)
+                .findFirst()
+                .orElse(new File(TEST_RESOURCES));
+    }
+}
@@ -0,0 +1,85 @@
+package valtman.jar.reader.benchmark;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import valtman.jar.reader.model.signature.ClassSignature;
+import valtman.jar.reader.object.util.DiffUtil;
+import valtman.jar.reader.object.util.MethodDiffUtil;
+import valtman.jar.reader.source.ClassEntry;
+import valtman.jar.reader.source.ClassSource;
+import valtman.jar.reader.util.ReaderUtils;
+import valtman.jar.reader.util.SignatureUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-class comparison of every class which differs between two lombok versions, without any jar I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassDiffBenchmark {
+
+    @Param({"lombok-0.10.4.jar:lombok-0.11.2.jar", "lombok-1.12.2.jar:lombok-1.14.4.jar"})
+    private String jars;
+
+    private List<String> classNames;
+    private Map<String, ClassReader> firstClasses;
+    private Map<String, ClassReader> secondClasses;
+    private Map<String, ClassSignature> firstSignatures;
+    private Map<String, ClassSignature> secondSignatures;
+
+    @Setup
+    public void setUp() {
+        String[] pair = jars.split(":");
+        try (ClassSource firstSource = ReaderUtils.open(BenchmarkJars.get(pair[0]));
+             ClassSource secondSource = ReaderUtils.open(BenchmarkJars.get(pair[1]))) {
+            Map<String, ClassEntry> firstEntries = byName(firstSource);
+            Map<String, ClassEntry> secondEntries = byName(secondSource);
+            //classes with the same CRC-32 and size never reach the per-class comparison
+            classNames = firstEntries.keySet()
+                    .stream()
+                    .filter(secondEntries::containsKey)
+                    .filter(name -> !firstEntries.get(name).hasSameContent(secondEntries.get(name)))
+                    .sorted()
+                    .collect(Collectors.toList());
+            firstClasses = readClasses(firstEntries);
+            secondClasses = readClasses(secondEntries);
+        }
+        firstSignatures = classNames.stream()
+                .collect(Collectors.toMap(name -> name, name -> SignatureUtils.readSignature(firstClasses.get(name))));
+        secondSignatures = classNames.stream()
+                .collect(Collectors.toMap(name -> name, name -> SignatureUtils.readSignature(secondClasses.get(name))));
+    }
+
+    @Benchmark
+    public void compareClass(Blackhole blackhole) {
+        for (String name : classNames) {
+            blackhole.consume(DiffUtil.compareClass(name, firstClasses.get(name), secondClasses.get(name)));
+        }
+    }
+
+    @Benchmark
+    public void getMethodDiff(Blackhole blackhole) {
+        for (String name : classNames) {
+            blackhole.consume(MethodDiffUtil.getMethodDiff(firstSignatures.get(name), secondSignatures.get(name)));
+        }
+    }
+
+    private Map<String, ClassReader> readClasses(Map<String, ClassEntry> entries) {
+        return classNames.stream()
+                .collect(Collectors.toMap(name -> name, name -> entries.get(name).getClassReader()));
+    }
+
+    private static Map<String, ClassEntry> byName(ClassSource source) {
+        return source.entries()
+                .collect(Collectors.toMap(ClassEntry::getName, entry -> entry, (firstEntry, duplicateEntry) -> firstEntry));
+    }
+}
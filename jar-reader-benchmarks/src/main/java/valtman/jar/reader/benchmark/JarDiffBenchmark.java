@@ -0,0 +1,51 @@
+package valtman.jar.reader.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import valtman.jar.reader.model.diff.JarDiffModel;
+import valtman.jar.reader.service.AbstractJarReaderService;
+import valtman.jar.reader.source.ReaderBackend;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JarDiffBenchmark {
+
+    @Param({
+            //adjacent versions
+            "lombok-0.8.4.jar:lombok-0.8.5.jar",
+            "lombok-1.14.4.jar:lombok-1.16.6.jar",
+            //distant versions
+            "lombok-0.4.jar:lombok.jar",
+            "lombok-0.9.3.jar:lombok-1.16.6.jar"
+    })
+    private String jars;
+
+    @Param({BenchmarkJars.OBJECT_ENGINE, BenchmarkJars.EVENT_ENGINE})
+    private String engine;
+
+    @Param({"JAR_FILE", "MEMORY_MAPPED"})
+    private ReaderBackend backend;
+
+    private File firstJar;
+    private File secondJar;
+    private AbstractJarReaderService jarService;
+
+    @Setup
+    public void setUp() {
+        String[] pair = jars.split(":");
+        firstJar = BenchmarkJars.get(pair[0]);
+        secondJar = BenchmarkJars.get(pair[1]);
+        jarService = BenchmarkJars.createService(engine, backend);
+    }
+
+    @Benchmark
+    public JarDiffModel getDiff() {
+        return jarService.getDiff(firstJar, secondJar);
+    }
+}
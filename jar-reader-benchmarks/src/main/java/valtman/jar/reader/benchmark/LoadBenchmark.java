@@ -0,0 +1,43 @@
+package valtman.jar.reader.benchmark;
+
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.*;
+import valtman.jar.reader.model.ClassModel;
+import valtman.jar.reader.object.JarObjectReaderService;
+import valtman.jar.reader.util.ReaderUtils;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param({"lombok-0.4.jar", "lombok-0.9.3.jar", "lombok-1.16.6.jar"})
+    private String jar;
+
+    private File jarFile;
+    private JarObjectReaderService jarService;
+
+    @Setup
+    public void setUp() {
+        jarFile = BenchmarkJars.get(jar);
+        jarService = new JarObjectReaderService();
+    }
+
+    @Benchmark
+    public Map<String, ClassReader> load() {
+        return ReaderUtils.load(jarFile);
+    }
+
+    @Benchmark
+    public List<ClassModel> readJar() {
+        return jarService.readJar(jarFile);
+    }
+}
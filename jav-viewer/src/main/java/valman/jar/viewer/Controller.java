@@ -2,19 +2,30 @@ package valman.jar.viewer;
 
 import lombok.Getter;
 import valman.jar.viewer.util.ModelUtil;
+import valtman.jar.reader.cache.JarSignatureMemoryCache;
+import valtman.jar.reader.event.JarEventReaderService;
 import valtman.jar.reader.object.JarObjectReaderService;
+import valtman.jar.reader.service.DiffJob;
 import valtman.jar.reader.service.JarReaderService;
+import valtman.jar.reader.source.ReaderBackend;
 
+import javax.swing.*;
 import javax.swing.tree.DefaultMutableTreeNode;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Getter
 public class Controller {
+    private static final String ENGINE_PROPERTY = "jar.reader.engine";
+    private static final String OBJECT_ENGINE = "object";
+    private static final String EVENT_ENGINE = "event";
+    //jars are weighted by class count, a few hundred thousand classes cover the usual application jars
+    private static final long SIGNATURE_CACHE_WEIGHT = 200_000;
+
     private final JarDiffFrame jarDiffFrame;
     private final JarReaderService jarReaderService;
-    private final AtomicReference<CompletableFuture> currentJob = new AtomicReference<>(new CompletableFuture());
+    private final AtomicReference<DiffJob> currentJob = new AtomicReference<>();
 
     public Controller(JarDiffFrame jarDiffFrame, JarReaderService jarReaderService) {
         this.jarDiffFrame = jarDiffFrame;
@@ -25,26 +36,43 @@ public class Controller {
             if (Objects.isNull(firstFile) || Objects.isNull(secondFile)) {
                 return;
             }
-            this.jarDiffFrame.setTreeValue(new DefaultMutableTreeNode("Please wait"));
-            try {
-                //TODO avoid double cancellation while waiting for service result
-//                currentJob.getAndSet(this.jarReaderService.getDiff(firstFile, secondFile)
-//                        .thenAccept(jarDiffModel -> this.jarDiffFrame.setTreeValue(ModelUtil.transformJarDiffModels(jarDiffModel)))
-//                .exceptionally(throwable -> {
-//                    //TODO should check possible exception and avoid explore unexpected one
-//                    return new DefaultMutableTreeNode(throwable.getCause().getMessage());
-//                }))
-//                        .cancel(true);
-                this.jarDiffFrame.setTreeValue(ModelUtil.transformJarDiffModels(this.jarReaderService.getDiff(firstFile, secondFile)));
-            } catch (Exception e) {
-                e.printStackTrace();
-                this.jarDiffFrame.setTreeValue(new DefaultMutableTreeNode("Something goes wrong"));
-            }
+            DiffJob job = this.jarReaderService.getDiffAsync(firstFile, secondFile);
+            Optional.ofNullable(currentJob.getAndSet(job))
+                    .ifPresent(previousJob -> previousJob.cancel(true));
+            SwingUtilities.invokeLater(() -> {
+                if (currentJob.get() == job) {
+                    this.jarDiffFrame.showProgress(job);
+                }
+            });
+            job.whenComplete((jarDiffModel, throwable) -> SwingUtilities.invokeLater(() -> {
+                //a superseded job has been cancelled, its result is of no interest
+                if (currentJob.get() != job) {
+                    return;
+                }
+                this.jarDiffFrame.hideProgress();
+                if (Objects.isNull(throwable)) {
+                    this.jarDiffFrame.setTreeModel(ModelUtil.transformJarDiffModels(jarDiffModel));
+                } else {
+                    throwable.printStackTrace();
+                    this.jarDiffFrame.setTreeValue(new DefaultMutableTreeNode("Something goes wrong"));
+                }
+            }));
         });
     }
 
     public static void main(String... args) {
-        new Controller(new JarDiffFrame(), new JarObjectReaderService());
+        new Controller(new JarDiffFrame(), createJarReaderService(System.getProperty(ENGINE_PROPERTY, OBJECT_ENGINE)));
+    }
+
+    private static JarReaderService createJarReaderService(String engine) {
+        switch (engine) {
+            case OBJECT_ENGINE:
+                return new JarObjectReaderService(ReaderBackend.JAR_FILE, new JarSignatureMemoryCache(SIGNATURE_CACHE_WEIGHT));
+            case EVENT_ENGINE:
+                return new JarEventReaderService();
+            default:
+                throw new IllegalArgumentException("Unknown jar reader engine " + engine);
+        }
     }
 
 }
@@ -3,14 +3,18 @@ package valman.jar.viewer;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import valman.jar.viewer.util.FileHolder;
+import valtman.jar.reader.service.DiffJob;
 
 import javax.swing.*;
+import javax.swing.Timer;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.TreeCellRenderer;
+import javax.swing.tree.TreeModel;
 import java.awt.*;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.dnd.*;
+import java.awt.event.ActionListener;
 import java.io.File;
 import java.util.List;
 import java.util.Objects;
@@ -21,9 +25,13 @@ import java.util.function.BiConsumer;
 
 @Getter
 public class JarDiffFrame extends JFrame {
+    private static final int PROGRESS_REFRESH_MILLIS = 100;
+
     private final JScrollPane scrollPane = new JScrollPane();
     private final Renderer renderer = new Renderer();
     private final JTree tree = new JTree(new DefaultMutableTreeNode("No JAR selected"));
+    private final JProgressBar progressBar = new JProgressBar();
+    private final Timer progressTimer = new Timer(PROGRESS_REFRESH_MILLIS, null);
 
     private final FileHolder firstFile = new FileHolder();
     private final FileHolder secondFile = new FileHolder();
@@ -45,6 +53,9 @@ public class JarDiffFrame extends JFrame {
         scrollPane.getViewport().add(tree);
         getContentPane().add(BorderLayout.CENTER, scrollPane);
         getContentPane().add(BorderLayout.NORTH, header);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+        getContentPane().add(BorderLayout.SOUTH, progressBar);
 
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
@@ -82,9 +93,38 @@ public class JarDiffFrame extends JFrame {
     }
 
     public void setTreeValue(DefaultMutableTreeNode treeNode) {
-        DefaultTreeModel model = (DefaultTreeModel) tree.getModel();
-        model.setRoot(treeNode);
-        model.reload();
+        setTreeModel(new DefaultTreeModel(treeNode));
+    }
+
+    public void setTreeModel(TreeModel treeModel) {
+        tree.setModel(treeModel);
+    }
+
+    /**
+     * Shows the progress of the job until {@link #hideProgress()}, must be called on the event dispatch thread.
+     */
+    public void showProgress(DiffJob job) {
+        for (ActionListener listener : progressTimer.getActionListeners()) {
+            progressTimer.removeActionListener(listener);
+        }
+        progressTimer.addActionListener(e -> updateProgress(job));
+        updateProgress(job);
+        progressBar.setVisible(true);
+        progressTimer.start();
+    }
+
+    public void hideProgress() {
+        progressTimer.stop();
+        progressBar.setVisible(false);
+    }
+
+    private void updateProgress(DiffJob job) {
+        long total = job.getTotalClasses();
+        //the number of classes is unknown until both jars are opened
+        progressBar.setIndeterminate(total == 0);
+        progressBar.setMaximum((int) Math.min(Integer.MAX_VALUE, total));
+        progressBar.setValue((int) Math.min(Integer.MAX_VALUE, job.getProcessedClasses()));
+        progressBar.setString(total == 0 ? "Reading jars" : job.getProcessedClasses() + " of " + total + " classes");
     }
 
     private void onFileSelect(FileHolder file, Label filePath) {
@@ -0,0 +1,82 @@
+package valman.jar.viewer.util;
+
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tree model over {@link LazyTreeNode}s which creates the children of a node when the tree first asks for them.
+ * Children of the most recently used nodes are kept, the rest are created again when needed.
+ * Like every Swing model it is used from the event dispatch thread only.
+ */
+public class LazyTreeModel implements TreeModel {
+    private static final int MAX_CACHED_NODES = 1024;
+
+    private final LazyTreeNode root;
+    private final List<TreeModelListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<LazyTreeNode, List<LazyTreeNode>> children = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LazyTreeNode, List<LazyTreeNode>> eldest) {
+            return size() > MAX_CACHED_NODES;
+        }
+    };
+
+    public LazyTreeModel(LazyTreeNode root) {
+        this.root = root;
+    }
+
+    @Override
+    public Object getRoot() {
+        return root;
+    }
+
+    @Override
+    public Object getChild(Object parent, int index) {
+        return getChildren((LazyTreeNode) parent).get(index);
+    }
+
+    @Override
+    public int getChildCount(Object parent) {
+        return getChildren((LazyTreeNode) parent).size();
+    }
+
+    @Override
+    public boolean isLeaf(Object node) {
+        return ((LazyTreeNode) node).isLeaf();
+    }
+
+    @Override
+    public void valueForPathChanged(TreePath path, Object newValue) {
+        //the diff is read only
+    }
+
+    @Override
+    public int getIndexOfChild(Object parent, Object child) {
+        if (parent == null || child == null) {
+            return -1;
+        }
+        LazyTreeNode childNode = (LazyTreeNode) child;
+        return parent.equals(childNode.getParent()) ? childNode.getIndex() : -1;
+    }
+
+    @Override
+    public void addTreeModelListener(TreeModelListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeTreeModelListener(TreeModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    private List<LazyTreeNode> getChildren(LazyTreeNode node) {
+        if (node.isLeaf()) {
+            return List.of();
+        }
+        return children.computeIfAbsent(node, parent -> parent.getChildFactory().apply(parent));
+    }
+}
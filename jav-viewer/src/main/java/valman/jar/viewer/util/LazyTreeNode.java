@@ -0,0 +1,113 @@
+package valman.jar.viewer.util;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Node of a {@link LazyTreeModel}. A node knows how to create its children but does not keep them, and it is
+ * identified by its parent and position, so children created again after eviction equal the previous ones
+ * and the expanded paths of the tree stay valid.
+ */
+@Getter
+@EqualsAndHashCode(of = {"parent", "index"})
+public class LazyTreeNode {
+    private final LazyTreeNode parent;
+    private final int index;
+    private final String label;
+    /**
+     * Creates the children of the node, null for a leaf.
+     */
+    private final Function<LazyTreeNode, List<LazyTreeNode>> childFactory;
+
+    public LazyTreeNode(String label, Function<LazyTreeNode, List<LazyTreeNode>> childFactory) {
+        this(null, 0, label, childFactory);
+    }
+
+    private LazyTreeNode(LazyTreeNode parent, int index, String label, Function<LazyTreeNode, List<LazyTreeNode>> childFactory) {
+        this.parent = parent;
+        this.index = index;
+        this.label = label;
+        this.childFactory = childFactory;
+    }
+
+    public boolean isLeaf() {
+        return childFactory == null;
+    }
+
+    /**
+     * Returns leaf children for the values, created only when a row is requested.
+     */
+    public static List<LazyTreeNode> leaves(LazyTreeNode parent, List<?> values) {
+        return nodes(parent, values, String::valueOf, value -> null);
+    }
+
+    /**
+     * Returns children for the values, created only when a row is requested.
+     */
+    public static <T> List<LazyTreeNode> nodes(LazyTreeNode parent, List<T> values, Function<T, String> label,
+                                               Function<T, Function<LazyTreeNode, List<LazyTreeNode>>> children) {
+        return new LazyNodeList<>(parent, values, label, children);
+    }
+
+    public static Builder builder(LazyTreeNode parent) {
+        return new Builder(parent);
+    }
+
+    /**
+     * Collects a small fixed set of children.
+     */
+    public static class Builder {
+        private final LazyTreeNode parent;
+        private final List<LazyTreeNode> nodes = new ArrayList<>();
+
+        private Builder(LazyTreeNode parent) {
+            this.parent = parent;
+        }
+
+        public Builder add(String label, Function<LazyTreeNode, List<LazyTreeNode>> children) {
+            nodes.add(new LazyTreeNode(parent, nodes.size(), label, children));
+            return this;
+        }
+
+        public List<LazyTreeNode> build() {
+            return nodes;
+        }
+    }
+
+    private static class LazyNodeList<T> extends AbstractList<LazyTreeNode> implements RandomAccess {
+        private final LazyTreeNode parent;
+        private final List<T> values;
+        private final Function<T, String> label;
+        private final Function<T, Function<LazyTreeNode, List<LazyTreeNode>>> children;
+
+        private LazyNodeList(LazyTreeNode parent, List<T> values, Function<T, String> label,
+                             Function<T, Function<LazyTreeNode, List<LazyTreeNode>>> children) {
+            this.parent = parent;
+            this.values = values;
+            this.label = label;
+            this.children = children;
+        }
+
+        @Override
+        public LazyTreeNode get(int index) {
+            T value = values.get(index);
+            return new LazyTreeNode(parent, index, label.apply(value), children.apply(value));
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -9,154 +9,143 @@ import valtman.jar.reader.model.diff.DiffModel;
 import valtman.jar.reader.model.diff.JarDiffModel;
 
 import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeModel;
 import java.util.*;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
+/**
+ * Presents a diff as a tree. Nodes are created when they are expanded, see {@link LazyTreeModel},
+ * so opening a diff of a large jar costs the same as opening a small one.
+ */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ModelUtil {
 
     private static final String CLASS = "classes";
-    private static final String CLASS_DIFF = "class diffs";
     private static final String ANNOTATION = "annotations";
+    private static final String FIELD_ANNOTATION = "field annotations";
     private static final String ARGUMENT = "arguments";
     private static final String EXCEPTION = "exceptions";
     private static final String RETURN_TYPE = "return types";
     private static final String ACCESS = "access";
     private static final String METHOD = "methods";
     private static final String HIERARCHY = "hierarchy";
+    private static final String IMPLEMENTATION = "implementation";
+    private static final String CHANGED = "changed";
+    private static final String NESTED_JAR = "nested jars";
     private static final String ADDED = "Added";
     private static final String REMOVED = "Removed";
     private static final String UNCHANGED = "Unchanged";
     private static final String UPDATED = "Updated";
 
-    private static <T> Optional<DefaultMutableTreeNode> transformCollections(List<T> collection, String type, Function<T, DefaultMutableTreeNode> transform) {
-        if (CollectionUtils.isEmpty(collection)) {
-            return Optional.empty();
+    public static TreeModel transformJarDiffModels(JarDiffModel diff) {
+        if (Objects.isNull(diff)) {
+            return new DefaultTreeModel(new DefaultMutableTreeNode("Something goes wrong"));
         }
-        DefaultMutableTreeNode classRootNode = new DefaultMutableTreeNode(type);
-        collection.stream()
-                .map(transform)
-                .forEach(classRootNode::add);
-        return Optional.of(classRootNode);
-    }
-
-    public static Optional<DefaultMutableTreeNode> transformString(String name) {
-        return Objects.isNull(name) || name.isEmpty() ? Optional.empty() : Optional.of(new DefaultMutableTreeNode(name));
-    }
-
-    public static Optional<DefaultMutableTreeNode> transformToString(Object object) {
-        return Objects.isNull(object) ? Optional.empty() : Optional.of(new DefaultMutableTreeNode(object.toString()));
+        if (!hasContent(diff) && !hasContent(diff.getNestedJars())) {
+            return new DefaultTreeModel(new DefaultMutableTreeNode("Nothing to show"));
+        }
+        return new LazyTreeModel(new LazyTreeNode(CLASS, parent -> transformJarDiffModel(parent, diff)));
     }
 
-    public static <T> Optional<List<DefaultMutableTreeNode>> transformCollection(Collection<T> collection,
-                                                                                 Function<T, Optional<DefaultMutableTreeNode>> transformation) {
-        if (CollectionUtils.isEmpty(collection)) {
-            return Optional.empty();
+    private static List<LazyTreeNode> transformJarDiffModel(LazyTreeNode parent, JarDiffModel diff) {
+        LazyTreeNode.Builder children = addDiffModel(LazyTreeNode.builder(parent), diff,
+                ClassDiffModel::getName, classDiff -> classNode -> transformClassDiffModel(classNode, classDiff));
+        DiffModel<List<String>, List<JarDiffModel>> nestedJars = diff.getNestedJars();
+        if (hasContent(nestedJars)) {
+            children.add(NESTED_JAR, nestedJarsNode -> addDiffModel(LazyTreeNode.builder(nestedJarsNode), nestedJars,
+                    JarDiffModel::getName, nestedJar -> nestedJarNode -> transformJarDiffModel(nestedJarNode, nestedJar))
+                    .build());
         }
-        List<DefaultMutableTreeNode> resultCollection = collection.stream()
-                .map(transformation)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toUnmodifiableList());
-        return CollectionUtils.isNotEmpty(resultCollection) ? Optional.of(resultCollection) : Optional.empty();
+        return children.build();
     }
 
-    public static <T, U> Optional<DefaultMutableTreeNode> transformDiffModel(DiffModel<T, U> diffModel, String name,
-                                                                             Function<T, Optional<List<DefaultMutableTreeNode>>> tTransformation,
-                                                                             Function<U, Optional<List<DefaultMutableTreeNode>>> uTransformation) {
-        if (Objects.isNull(diffModel)) {
-            return Optional.empty();
+    private static List<LazyTreeNode> transformClassDiffModel(LazyTreeNode parent, ClassDiffModel classDiff) {
+        LazyTreeNode.Builder children = LazyTreeNode.builder(parent);
+        addStringDiffModel(children, ANNOTATION, classDiff.getAnnotations());
+        List<DiffModel<List<String>, List<String>>> fieldAnnotations = classDiff.getFieldAnnotations();
+        if (CollectionUtils.isNotEmpty(fieldAnnotations)) {
+            children.add(FIELD_ANNOTATION, fieldsNode -> LazyTreeNode.nodes(fieldsNode, fieldAnnotations, DiffModel::getName,
+                    fieldDiff -> fieldNode -> addDiffModel(LazyTreeNode.builder(fieldNode), fieldDiff, String::valueOf, value -> null)
+                            .build()));
         }
-        DefaultMutableTreeNode classDiffRootNode = new DefaultMutableTreeNode(Optional.ofNullable(name).orElse(diffModel.getName()));
-        tTransformation.apply(diffModel.getUnchanged())
-                .ifPresent(child -> addChildNode(classDiffRootNode, UNCHANGED, child));
-        tTransformation.apply(diffModel.getAdded())
-                .ifPresent(child -> addChildNode(classDiffRootNode, ADDED, child));
-        tTransformation.apply(diffModel.getDeleted())
-                .ifPresent(child -> addChildNode(classDiffRootNode, REMOVED, child));
-        uTransformation.apply(diffModel.getUpdated())
-                .ifPresent(child -> addChildNode(classDiffRootNode, UPDATED, child));
-
-        return classDiffRootNode.isLeaf() ? Optional.empty() : Optional.of(classDiffRootNode);
+        addStringDiffModel(children, HIERARCHY, classDiff.getInterfaces());
+        DiffModel<List<String>, List<DiffModel<MethodModel, MethodModel>>> methods = classDiff.getMethods();
+        if (hasContent(methods)) {
+            children.add(METHOD, methodsNode -> addDiffModel(LazyTreeNode.builder(methodsNode), methods,
+                    DiffModel::getName, methodDiff -> methodNode -> transformMethodDiffModel(methodNode, methodDiff))
+                    .build());
+        }
+        return children.build();
     }
 
-    private static void addChildNode(DefaultMutableTreeNode rootNode,
-                                     String nodeName,
-                                     List<DefaultMutableTreeNode> childNodes) {
-
-        if (CollectionUtils.isNotEmpty(childNodes)) {
-            DefaultMutableTreeNode innerNode = new DefaultMutableTreeNode(nodeName);
-            childNodes.forEach(innerNode::add);
-            rootNode.add(innerNode);
-        }
+    private static List<LazyTreeNode> transformMethodDiffModel(LazyTreeNode parent, DiffModel<MethodModel, MethodModel> methodDiff) {
+        LazyTreeNode.Builder children = LazyTreeNode.builder(parent);
+        addMethodModel(children, UNCHANGED, methodDiff.getUnchanged(), methodDiff.getName());
+        addMethodModel(children, ADDED, methodDiff.getAdded(), methodDiff.getName());
+        addMethodModel(children, REMOVED, methodDiff.getDeleted(), methodDiff.getName());
+        addMethodModel(children, UPDATED, methodDiff.getUpdated(), methodDiff.getName());
+        return children.build();
     }
 
-    private static Optional<DefaultMutableTreeNode> transformClassDiffModel(ClassDiffModel classDataModel) {
-        if (Objects.isNull(classDataModel)) {
-            return Optional.empty();
+    private static void addMethodModel(LazyTreeNode.Builder children, String name, MethodModel method, String methodName) {
+        if (Objects.isNull(method)) {
+            return;
         }
-        DefaultMutableTreeNode rootNode = new DefaultMutableTreeNode(classDataModel.getName());
-        transformDiffModel(classDataModel.getAnnotations(), ANNOTATION, ModelUtil::transformToStringCollection,
-                ModelUtil::transformToStringCollection)
-                .ifPresent(rootNode::add);
-        transformDiffModel(classDataModel.getInterfaces(), HIERARCHY, ModelUtil::transformToStringCollection,
-                ModelUtil::transformToStringCollection)
-                .ifPresent(rootNode::add);
-        transformDiffModel(classDataModel.getMethods(), METHOD, ModelUtil::transformToStringCollection,
-                updatedMethods -> transformCollection(updatedMethods, ModelUtil::transformMethodDiffModel))
-                .ifPresent(rootNode::add);
-        return Optional.of(rootNode);
+        List<Map.Entry<String, List<String>>> parts = new ArrayList<>();
+        Optional.ofNullable(method.getReturnType())
+                .ifPresent(returnType -> parts.add(Map.entry(RETURN_TYPE, List.of(returnType))));
+        Optional.ofNullable(method.getAccess())
+                .ifPresent(access -> parts.add(Map.entry(ACCESS, List.of(access))));
+        addPart(parts, ANNOTATION, method.getAnnotations());
+        addPart(parts, ARGUMENT, method.getArgumentTypes());
+        addPart(parts, EXCEPTION, method.getExceptions());
+        if (method.isImplementationChanged()) {
+            parts.add(Map.entry(IMPLEMENTATION, List.of(CHANGED)));
+        }
+        if (parts.isEmpty()) {
+            return;
+        }
+        children.add(name, groupNode -> LazyTreeNode.builder(groupNode)
+                .add(Objects.requireNonNullElse(method.getMethodName(), methodName), methodNode -> LazyTreeNode.nodes(methodNode,
+                        parts, Map.Entry::getKey, part -> partNode -> LazyTreeNode.leaves(partNode, part.getValue())))
+                .build());
     }
 
-    public static Optional<DefaultMutableTreeNode> transformMethodDiffModel(DiffModel<MethodModel, MethodModel> methodDiffModel) {
-        return transformDiffModel(methodDiffModel, null, ModelUtil::transformMethodModel, ModelUtil::transformMethodModel);
+    private static void addPart(List<Map.Entry<String, List<String>>> parts, String name, List<String> values) {
+        if (CollectionUtils.isNotEmpty(values)) {
+            parts.add(Map.entry(name, values));
+        }
     }
 
-    public static Optional<List<DefaultMutableTreeNode>> transformMethodModel(MethodModel methodModel) {
-
-        DefaultMutableTreeNode methodRootNode = new DefaultMutableTreeNode(methodModel.getMethodName());
-
-        DefaultMutableTreeNode returnTypeNode = new DefaultMutableTreeNode(RETURN_TYPE);
-        returnTypeNode.add(new DefaultMutableTreeNode(methodModel.getReturnType()));
-        methodRootNode.add(returnTypeNode);
-
-        transformString(methodModel.getReturnType())
-                .ifPresent(access -> {
-                    DefaultMutableTreeNode accessNode = new DefaultMutableTreeNode(RETURN_TYPE);
-                    accessNode.add(access);
-                    methodRootNode.add(accessNode);
-                });
-
-        transformToStringCollection(methodModel.getAnnotations())
-                .ifPresent(annotations -> addChildNode(methodRootNode, ANNOTATION, annotations));
-        transformToStringCollection(methodModel.getArgumentTypes())
-                .ifPresent(arguments -> addChildNode(methodRootNode, ARGUMENT, arguments));
-        transformToStringCollection(methodModel.getExceptions())
-                .ifPresent(exceptions -> addChildNode(methodRootNode, EXCEPTION, exceptions));
-        return Optional.of(Collections.singletonList(methodRootNode));
+    private static void addStringDiffModel(LazyTreeNode.Builder children, String name, DiffModel<List<String>, List<String>> diff) {
+        if (hasContent(diff)) {
+            children.add(name, diffNode -> addDiffModel(LazyTreeNode.builder(diffNode), diff, String::valueOf, value -> null)
+                    .build());
+        }
     }
 
-    private static Optional<DefaultMutableTreeNode> getChildTree(String childName, List<String> childList) {
-        if (CollectionUtils.isNotEmpty(childList)) {
-            DefaultMutableTreeNode childNode = new DefaultMutableTreeNode(childName);
-            childList
-                    .forEach(annotation -> childNode.add(new DefaultMutableTreeNode(annotation)));
-            return Optional.of(childNode);
+    private static <U> LazyTreeNode.Builder addDiffModel(LazyTreeNode.Builder children, DiffModel<? extends List<?>, List<U>> diff,
+                                                         Function<U, String> updatedLabel,
+                                                         Function<U, Function<LazyTreeNode, List<LazyTreeNode>>> updatedChildren) {
+        addLeaves(children, UNCHANGED, diff.getUnchanged());
+        addLeaves(children, ADDED, diff.getAdded());
+        addLeaves(children, REMOVED, diff.getDeleted());
+        if (CollectionUtils.isNotEmpty(diff.getUpdated())) {
+            children.add(UPDATED, node -> LazyTreeNode.nodes(node, diff.getUpdated(), updatedLabel, updatedChildren));
         }
-        return Optional.empty();
+        return children;
     }
 
-    public static DefaultMutableTreeNode transformJarDiffModels(JarDiffModel diff) {
-        if (Objects.isNull(diff)) {
-            return new DefaultMutableTreeNode("Something goes wrong");
+    private static void addLeaves(LazyTreeNode.Builder children, String name, List<?> values) {
+        if (CollectionUtils.isNotEmpty(values)) {
+            children.add(name, node -> LazyTreeNode.leaves(node, values));
         }
-        return transformDiffModel(diff, CLASS, ModelUtil::transformToStringCollection,
-                updatedClasses -> transformCollection(updatedClasses, ModelUtil::transformClassDiffModel))
-                .orElse(new DefaultMutableTreeNode("Nothing to show"));
     }
 
-    private static Optional<List<DefaultMutableTreeNode>> transformToStringCollection(List<?> classNames) {
-        return transformCollection(classNames, ModelUtil::transformToString);
+    private static boolean hasContent(DiffModel<? extends List<?>, ? extends List<?>> diff) {
+        return Objects.nonNull(diff)
+                && (CollectionUtils.isNotEmpty(diff.getAdded()) || CollectionUtils.isNotEmpty(diff.getDeleted())
+                || CollectionUtils.isNotEmpty(diff.getUnchanged()) || CollectionUtils.isNotEmpty(diff.getUpdated()));
     }
 }